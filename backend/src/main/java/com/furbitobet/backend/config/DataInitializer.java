@@ -1,5 +1,6 @@
 package com.furbitobet.backend.config;
 
+import com.furbitobet.backend.model.Bet;
 import com.furbitobet.backend.model.User;
 import com.furbitobet.backend.service.UserService;
 import org.springframework.boot.CommandLineRunner;
@@ -9,6 +10,35 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class DataInitializer {
 
+    /**
+     * Hibernate crea un CHECK con los valores del enum al generar bets.status y
+     * ddl-auto=update no lo amplía cuando se añaden estados (p.ej. CASHED_OUT).
+     * Migración de un solo uso: si al CHECK le falta algún valor de
+     * Bet.BetStatus se sustituye por uno con todos; si ya está al día solo se
+     * lee el catálogo y la tabla no se toca.
+     */
+    @Bean
+    public CommandLineRunner migrateBetStatusCheck(org.springframework.jdbc.core.JdbcTemplate jdbcTemplate) {
+        return args -> {
+            java.util.List<String> definitions = jdbcTemplate.queryForList(
+                    "SELECT pg_get_constraintdef(oid) FROM pg_constraint "
+                            + "WHERE conrelid = 'bets'::regclass AND conname = 'bets_status_check'",
+                    String.class);
+            java.util.List<String> values = new java.util.ArrayList<>();
+            for (Bet.BetStatus status : Bet.BetStatus.values()) {
+                values.add("'" + status.name() + "'");
+            }
+            if (!definitions.isEmpty() && values.stream().allMatch(definitions.get(0)::contains)) {
+                return;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE bets DROP CONSTRAINT IF EXISTS bets_status_check");
+            jdbcTemplate.execute("ALTER TABLE bets ADD CONSTRAINT bets_status_check CHECK (status IN ("
+                    + String.join(", ", values) + "))");
+            System.out.println("bets_status_check migrated to " + values);
+        };
+    }
+
     @Bean
     public CommandLineRunner initData(UserService userService,
             com.furbitobet.backend.repository.PlayerRepository playerRepository) {
@@ -0,0 +1,28 @@
+package com.furbitobet.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view registrado a mano (spring.jpa.open-in-view=false) para poder
+ * excluir /api/stream: el interceptor mantiene la sesión, y con ella la
+ * conexión JDBC, abierta mientras dure la petición asíncrona, es decir,
+ * mientras el cliente SSE siga conectado.
+ */
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns("/api/stream", "/api/stream/**");
+    }
+}
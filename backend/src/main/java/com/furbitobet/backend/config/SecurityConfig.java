@@ -61,6 +61,9 @@ public class SecurityConfig {
                         // Authenticated endpoints (private bets endpoint)
                         .requestMatchers("/api/bets/**").authenticated()
 
+                        // Live updates: the stream is public, its per-user token needs a JWT
+                        .requestMatchers("/api/stream/token").authenticated()
+
                         .anyRequest().permitAll())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
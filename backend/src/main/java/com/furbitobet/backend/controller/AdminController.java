@@ -11,10 +11,7 @@ import java.math.BigDecimal;
 
 import com.furbitobet.backend.repository.EventRepository;
 import com.furbitobet.backend.repository.OutcomeRepository;
-import com.furbitobet.backend.repository.BetRepository;
 import com.furbitobet.backend.repository.UserRepository;
-import com.furbitobet.backend.model.Bet;
-import org.springframework.transaction.annotation.Transactional;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -32,9 +29,6 @@ public class AdminController {
     @Autowired
     private OutcomeRepository outcomeRepository;
 
-    @Autowired
-    private BetRepository betRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -118,95 +112,71 @@ public class AdminController {
         outcome.setOutcomeGroup(request.getOutcomeGroup());
         outcome.setEvent(event);
         outcome.setStatus(Outcome.OutcomeStatus.PENDING);
-        return outcomeRepository.save(outcome);
+        com.furbitobet.backend.service.market.OutcomeMetadata.apply(outcome, null);
+        Outcome saved = outcomeRepository.save(outcome);
+        outcomeSnapshotService.refreshEvent(eventId);
+        liveUpdateService.publishEvent(event);
+        return saved;
     }
 
     @DeleteMapping("/outcomes/{id}")
     public void deleteOutcome(@PathVariable Long id) {
+        Event event = outcomeRepository.findById(id).map(Outcome::getEvent).orElse(null);
         outcomeRepository.deleteById(id);
+        outcomeSnapshotService.removeOutcome(id);
+        if (event != null) {
+            liveUpdateService.publishEvent(event);
+        }
     }
 
-    @PutMapping("/outcomes/{id}/status")
-    @Transactional
-    public void settleOutcome(@PathVariable Long id, @RequestParam Outcome.OutcomeStatus status) {
-        Outcome outcome = outcomeRepository.findById(id).orElseThrow();
-        outcome.setStatus(status);
-        outcomeRepository.save(outcome);
-
-        // Re-evaluate all bets containing this outcome
-        java.util.List<Bet> allBets = betRepository.findAll();
+    @Autowired
+    private com.furbitobet.backend.service.OutcomeSnapshotService outcomeSnapshotService;
 
-        for (Bet bet : allBets) {
-            // Check if this bet contains the modified outcome
-            boolean containsOutcome = bet.getOutcomes().stream()
-                    .anyMatch(o -> o.getId().equals(id));
+    @Autowired
+    private com.furbitobet.backend.service.LiveUpdateService liveUpdateService;
 
-            if (!containsOutcome) {
-                continue;
-            }
+    @Autowired
+    private com.furbitobet.backend.service.SettlementService settlementService;
 
-            // Store old bet status to handle balance adjustments
-            Bet.BetStatus oldBetStatus = bet.getStatus();
-            BigDecimal oldWinnings = bet.getWinnings() != null ? bet.getWinnings() : BigDecimal.ZERO;
+    @PutMapping("/outcomes/{id}/status")
+    public void settleOutcome(@PathVariable Long id, @RequestParam Outcome.OutcomeStatus status) {
+        // Re-evaluate only the bets containing this outcome
+        settlementService.settleOutcome(id, status);
+    }
 
-            // Re-evaluate bet status
-            boolean allResolved = true;
-            boolean anyLost = false;
-            BigDecimal totalOdds = BigDecimal.ONE;
-            boolean anyVoid = false;
+    @Autowired
+    private com.furbitobet.backend.service.ExposureService exposureService;
 
-            for (Outcome o : bet.getOutcomes()) {
-                if (o.getStatus() == Outcome.OutcomeStatus.PENDING) {
-                    allResolved = false;
-                }
-                if (o.getStatus() == Outcome.OutcomeStatus.LOST) {
-                    anyLost = true;
-                }
-                if (o.getStatus() == Outcome.OutcomeStatus.WON) {
-                    totalOdds = totalOdds.multiply(o.getOdds());
-                }
-                if (o.getStatus() == Outcome.OutcomeStatus.VOID) {
-                    anyVoid = true;
-                }
-            }
+    @GetMapping("/outcomes/{id}/exposure")
+    public com.furbitobet.backend.model.OutcomeExposure getOutcomeExposure(@PathVariable Long id) {
+        return exposureService.getExposure(id);
+    }
 
-            User user = bet.getUser();
+    // Every event with its outcomes, for the admin panel; the public catalog is paginated
+    @GetMapping("/events")
+    public java.util.List<com.furbitobet.backend.model.Event> getAllEvents() {
+        return eventService.getAllEvents();
+    }
 
-            // Revert previous winnings if bet was already settled
-            if (oldBetStatus == Bet.BetStatus.WON && oldWinnings.compareTo(BigDecimal.ZERO) > 0) {
-                user.setBalance(user.getBalance().subtract(oldWinnings));
-            } else if (oldBetStatus == Bet.BetStatus.VOID && bet.getAmount() != null) {
-                // Revert refund if bet was voided
-                user.setBalance(user.getBalance().subtract(bet.getAmount()));
-            }
+    @GetMapping("/events/{id}/exposure")
+    public java.util.List<com.furbitobet.backend.model.OutcomeExposure> getEventExposure(@PathVariable Long id) {
+        return exposureService.getEventExposure(id);
+    }
 
-            // Apply new bet status
-            if (anyLost) {
-                bet.setStatus(Bet.BetStatus.LOST);
-                bet.setWinnings(BigDecimal.ZERO);
-            } else if (!allResolved) {
-                bet.setStatus(Bet.BetStatus.PENDING);
-                bet.setWinnings(null);
-            } else {
-                // All resolved and none lost
-                if (anyVoid && totalOdds.compareTo(BigDecimal.ONE) == 0
-                        && bet.getOutcomes().stream().allMatch(o -> o.getStatus() == Outcome.OutcomeStatus.VOID)) {
-                    // All void - refund
-                    bet.setStatus(Bet.BetStatus.VOID);
-                    bet.setWinnings(bet.getAmount());
-                    user.setBalance(user.getBalance().add(bet.getAmount()));
-                } else {
-                    // Won
-                    bet.setStatus(Bet.BetStatus.WON);
-                    BigDecimal winnings = bet.getAmount().multiply(totalOdds);
-                    bet.setWinnings(winnings);
-                    user.setBalance(user.getBalance().add(winnings));
-                }
-            }
+    @PostMapping("/exposure/rebuild")
+    public void rebuildExposure() {
+        exposureService.rebuild();
+    }
 
-            userRepository.save(user);
-            betRepository.save(bet);
-        }
+    @PostMapping("/events/{id}/outcomes/resolve")
+    public org.springframework.http.ResponseEntity<?> resolveOutcomes(@PathVariable Long id,
+            @RequestBody java.util.Map<Long, Outcome.OutcomeStatus> statuses) {
+        // Apply all outcome changes and settle each affected bet exactly once
+        int betsSettled = settlementService.resolveOutcomes(id, statuses);
+        return org.springframework.http.ResponseEntity.ok(
+                java.util.Map.of(
+                        "outcomesUpdated", statuses.size(),
+                        "betsSettled", betsSettled));
     }
 
     public static class OutcomeRequest {
@@ -239,12 +209,37 @@ public class AdminController {
         }
     }
 
+    @Autowired
+    private com.furbitobet.backend.service.SettlementEngine settlementEngine;
+
+    @GetMapping("/settlement/stats")
+    public org.springframework.http.ResponseEntity<?> getSettlementStats() {
+        return org.springframework.http.ResponseEntity.ok(settlementEngine.getPartitionStats());
+    }
+
     @PostMapping("/events/{id}/resolve")
     public void resolveEvent(@PathVariable Long id, @RequestBody ResolveRequest request) {
         Event event = eventRepository.findById(id).orElseThrow();
         eventService.resolveEvent(event, request.getHomeGoals(), request.getAwayGoals());
     }
 
+    @Autowired
+    private com.furbitobet.backend.service.SettlementPreviewService settlementPreviewService;
+
+    /**
+     * Dry-run of resolveEvent: streams the projected result of every pending bet
+     * as NDJSON followed by a summary line. Nothing is written to the database.
+     */
+    @PostMapping(value = "/events/{id}/resolve/preview", produces = "application/x-ndjson")
+    public org.springframework.http.ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> previewResolveEvent(
+            @PathVariable Long id, @RequestBody ResolveRequest request) {
+        eventRepository.findById(id).orElseThrow(() -> new RuntimeException("Event not found"));
+        return org.springframework.http.ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> settlementPreviewService.streamPreview(id, request.getHomeGoals(),
+                        request.getAwayGoals(), out));
+    }
+
     public static class ResolveRequest {
         private int homeGoals;
         private int awayGoals;
@@ -374,6 +369,23 @@ public class AdminController {
         return userService.updateBalance(id, amount);
     }
 
+    @Autowired
+    private com.furbitobet.backend.service.WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private com.furbitobet.backend.service.WalletLedgerService walletLedgerService;
+
+    @GetMapping("/users/{id}/ledger")
+    public java.util.List<com.furbitobet.backend.model.WalletLedgerEntry> getUserLedger(@PathVariable Long id,
+            @RequestParam(defaultValue = "100") int limit) {
+        return walletLedgerService.getEntries(id, Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @GetMapping("/wallet/stats")
+    public org.springframework.http.ResponseEntity<?> getWalletStats() {
+        return org.springframework.http.ResponseEntity.ok(walletCommandExecutor.getStats());
+    }
+
     @PostMapping("/send-newsletter")
     public org.springframework.http.ResponseEntity<?> sendNewsletterToAllUsers(
             @RequestBody(required = false) NewsletterRequest request) {
@@ -527,7 +539,6 @@ public class AdminController {
     }
 
     @PostMapping("/add-balance-to-all")
-    @Transactional
     public org.springframework.http.ResponseEntity<?> addBalanceToAllUsers(@RequestBody AddBalanceRequest request) {
         try {
             // SECURITY: Validate amount is positive
@@ -544,22 +555,17 @@ public class AdminController {
 
             System.out.println("💰 Adding " + request.getAmount() + "€ to all users...");
 
-            java.util.List<User> allUsers = userService.getAllUsers();
-            int updatedCount = 0;
-
-            for (User user : allUsers) {
-                // Skip admin users
-                if (user.getRole() == User.Role.ADMIN) {
-                    continue;
-                }
-
-                BigDecimal currentBalance = user.getBalance() != null ? user.getBalance() : BigDecimal.ZERO;
-                user.setBalance(currentBalance.add(request.getAmount()));
-                userRepository.save(user);
-                updatedCount++;
-                System.out.println("✅ Added " + request.getAmount() + "€ to " + user.getUsername() +
-                        " (new balance: " + user.getBalance() + "€)");
+            // One credit per non-admin user, each on that user's wallet lane
+            java.util.Map<Long, java.util.function.Supplier<Void>> credits = new java.util.LinkedHashMap<>();
+            for (Long userId : userRepository.findIdsByRoleNot(User.Role.ADMIN)) {
+                credits.put(userId, () -> {
+                    walletLedgerService.credit(userId, request.getAmount(),
+                            com.furbitobet.backend.model.WalletLedgerEntry.EntryType.ADMIN_BONUS,
+                            null, "Bonus for all users");
+                    return null;
+                });
             }
+            int updatedCount = walletCommandExecutor.executeEach(credits).size();
 
             String responseMessage = String.format(
                     "Successfully added %s€ to %d users",
@@ -21,6 +21,9 @@ public class AuthController {
     @Autowired
     private com.furbitobet.backend.service.EmailService emailService;
 
+    @Autowired
+    private com.furbitobet.backend.service.ContentVersionService contentVersionService;
+
     @Autowired
     private com.furbitobet.backend.service.AppConfigService appConfigService;
 
@@ -52,6 +55,7 @@ public class AuthController {
         user.setTokenExpiry(java.time.LocalDateTime.now().plusHours(24));
 
         userRepository.save(user);
+        contentVersionService.bump(com.furbitobet.backend.service.ContentVersionService.Resource.RANKING);
 
         try {
             emailService.sendAccountConfirmationEmail(request.getEmail(), token);
@@ -98,6 +102,7 @@ public class AuthController {
         user.setConfirmationToken(null);
         user.setTokenExpiry(null);
         userRepository.save(user);
+        contentVersionService.bump(com.furbitobet.backend.service.ContentVersionService.Resource.RANKING);
 
         return ResponseEntity.ok("Account confirmed successfully! You can now login.");
     }
@@ -16,8 +16,18 @@ public class BetController {
     @Autowired
     private com.furbitobet.backend.service.UserService userService;
 
+    @Autowired
+    private com.furbitobet.backend.service.IdempotencyService idempotencyService;
+
+    @Autowired
+    private com.furbitobet.backend.service.WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private com.furbitobet.backend.service.WalletLedgerService walletLedgerService;
+
     @PostMapping
-    public Bet placeBet(@RequestBody PlaceBetRequest request,
+    public org.springframework.http.ResponseEntity<?> placeBet(@RequestBody PlaceBetRequest request,
+            @RequestHeader(value = com.furbitobet.backend.service.IdempotencyService.HEADER, required = false) String idempotencyKey,
             org.springframework.security.core.Authentication authentication) {
         // SECURITY: Verify that the authenticated user matches the userId in the
         // request
@@ -28,13 +38,57 @@ public class BetController {
             throw new RuntimeException("Unauthorized: Cannot place bets for other users");
         }
 
-        return betService.placeBet(request.getUserId(), request.getOutcomeIds(), request.getAmount());
+        // Runs on the user's wallet lane; a retry with the same Idempotency-Key gets
+        // the original response. The balance is checked before anything is written,
+        // so a rejected stake is a plain response and leaves the lane's batch alone
+        Long userId = requestUser.getId();
+        return walletCommandExecutor.execute(userId,
+                () -> idempotencyService.execute(userId, "bets", idempotencyKey, request, () -> {
+                    if (request.getAmount() != null && !walletLedgerService.covers(userId, request.getAmount())) {
+                        return org.springframework.http.ResponseEntity.badRequest().body("Insufficient balance");
+                    }
+                    return org.springframework.http.ResponseEntity.ok(betService.placeBet(userId,
+                            request.getOutcomeIds(), request.getAmount(), request.getOddsVersions()));
+                }));
+    }
+
+    /**
+     * Places several bets in one request. Each entry gets its own result;
+     * a failing bet does not prevent the others from being placed.
+     */
+    @PostMapping("/batch")
+    public org.springframework.http.ResponseEntity<?> placeBets(
+            @RequestBody java.util.List<PlaceBetRequest> requests,
+            @RequestHeader(value = com.furbitobet.backend.service.IdempotencyService.HEADER, required = false) String idempotencyKey,
+            org.springframework.security.core.Authentication authentication) {
+        // SECURITY: All bets in the slip must belong to the authenticated user
+        com.furbitobet.backend.model.User user = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        java.util.List<java.util.List<Long>> outcomeIds = new java.util.ArrayList<>();
+        java.util.List<BigDecimal> amounts = new java.util.ArrayList<>();
+        java.util.List<java.util.Map<Long, Long>> oddsVersions = new java.util.ArrayList<>();
+        for (PlaceBetRequest request : requests) {
+            if (request.getUserId() != null && !request.getUserId().equals(user.getId())) {
+                throw new RuntimeException("Unauthorized: Cannot place bets for other users");
+            }
+            outcomeIds.add(request.getOutcomeIds());
+            amounts.add(request.getAmount());
+            oddsVersions.add(request.getOddsVersions());
+        }
+
+        return walletCommandExecutor.execute(user.getId(),
+                () -> idempotencyService.execute(user.getId(), "bets/batch", idempotencyKey, requests,
+                        () -> org.springframework.http.ResponseEntity
+                                .ok(betService.placeBets(user.getId(), outcomeIds, amounts, oddsVersions))));
     }
 
     public static class PlaceBetRequest {
         private Long userId;
         private java.util.List<Long> outcomeIds;
         private BigDecimal amount;
+        // Optional: outcome id -> oddsVersion shown to the user; stale prices are rejected
+        private java.util.Map<Long, Long> oddsVersions;
 
         // Getters and Setters
         public Long getUserId() {
@@ -60,10 +114,27 @@ public class BetController {
         public void setAmount(BigDecimal amount) {
             this.amount = amount;
         }
+
+        public java.util.Map<Long, Long> getOddsVersions() {
+            return oddsVersions;
+        }
+
+        public void setOddsVersions(java.util.Map<Long, Long> oddsVersions) {
+            this.oddsVersions = oddsVersions;
+        }
     }
 
+    /**
+     * Keyset-paginated bet history, most recent first, optionally filtered by
+     * status and placement date; nextCursor goes in the next request's before
+     * parameter.
+     */
     @GetMapping("/user/{userId}")
-    public java.util.List<Bet> getUserBets(@PathVariable Long userId,
+    public com.furbitobet.backend.dto.BetHistoryPageDTO getUserBets(@PathVariable Long userId,
+            @RequestParam(required = false) java.util.List<com.furbitobet.backend.model.Bet.BetStatus> status,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime from,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
             org.springframework.security.core.Authentication authentication) {
         // SECURITY: Verify that the authenticated user can only view their own bets
         String authenticatedUsername = authentication.getName();
@@ -73,7 +144,7 @@ public class BetController {
             throw new RuntimeException("Unauthorized: Cannot view other users' bets");
         }
 
-        return betService.getBetsByUserId(userId);
+        return betService.getBetHistoryPage(userId, status, from, before, limit);
     }
 
     /**
@@ -88,10 +159,14 @@ public class BetController {
      * privacy.
      */
     @GetMapping("/user/{userId}/public")
-    public java.util.List<Bet> getUserBetsPublic(@PathVariable Long userId) {
+    public com.furbitobet.backend.dto.BetHistoryPageDTO getUserBetsPublic(@PathVariable Long userId,
+            @RequestParam(required = false) java.util.List<com.furbitobet.backend.model.Bet.BetStatus> status,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime from,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit) {
         // PUBLIC: Anyone can view any user's bets (for transparency)
-        // The Bet entity already has @JsonIgnore on sensitive User fields
-        return betService.getBetsByUserId(userId);
+        // BetHistoryDTO carries no user data at all
+        return betService.getBetHistoryPage(userId, status, from, before, limit);
     }
 
     @PostMapping("/{id}/cancel")
@@ -105,6 +180,48 @@ public class BetController {
             throw new RuntimeException("Unauthorized: Cannot cancel other users' bets");
         }
 
-        betService.cancelBet(id, userId);
+        walletCommandExecutor.execute(userId, () -> {
+            betService.cancelBet(id, userId);
+            return null;
+        });
+    }
+
+    @Autowired
+    private com.furbitobet.backend.service.CashOutService cashOutService;
+
+    /**
+     * Current cash-out offer for one of the authenticated user's pending bets.
+     * Served from the in-memory cash-out engine.
+     */
+    @GetMapping("/{id}/cashout")
+    public com.furbitobet.backend.dto.CashOutQuoteDTO getCashOutQuote(@PathVariable Long id,
+            org.springframework.security.core.Authentication authentication) {
+        com.furbitobet.backend.model.User user = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        com.furbitobet.backend.dto.CashOutQuoteDTO quote = cashOutService.getQuote(id);
+        if (quote == null || !user.getId().equals(cashOutService.getOwner(id))) {
+            throw new RuntimeException("Cash-out is not available for this bet");
+        }
+        return quote;
+    }
+
+    /**
+     * Accepts the current cash-out offer. expectedAmount is the offer the user
+     * saw; if the price moved in the meantime the request is rejected.
+     */
+    @PostMapping("/{id}/cashout")
+    public com.furbitobet.backend.dto.CashOutQuoteDTO cashOut(@PathVariable Long id, @RequestParam Long userId,
+            @RequestParam(required = false) BigDecimal expectedAmount,
+            org.springframework.security.core.Authentication authentication) {
+        // SECURITY: Verify that the authenticated user matches the userId parameter
+        String authenticatedUsername = authentication.getName();
+        com.furbitobet.backend.model.User requestUser = userService.getUserById(userId);
+
+        if (!requestUser.getUsername().equals(authenticatedUsername)) {
+            throw new RuntimeException("Unauthorized: Cannot cash out other users' bets");
+        }
+
+        return walletCommandExecutor.execute(userId, () -> betService.cashOut(id, userId, expectedAmount));
     }
 }
@@ -1,6 +1,7 @@
 package com.furbitobet.backend.controller;
 
 import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.service.ContentVersionService;
 import com.furbitobet.backend.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,14 +17,33 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    /**
+     * Keyset-paginated page of lightweight event summaries, optionally
+     * filtered by status and date, oldest first unless newestFirst is set;
+     * nextCursor goes in the next request's
+     * cursor parameter. Honours If-None-Match against the events content
+     * version. The admin panel gets the full entities from GET /api/admin/events.
+     */
     @GetMapping
-    public List<Event> getAllEvents() {
-        return eventService.getAllEvents();
+    public ResponseEntity<com.furbitobet.backend.dto.EventPageDTO> getAllEvents(@RequestParam(required = false) List<Event.EventStatus> status,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime from,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean newestFirst,
+            org.springframework.web.context.request.WebRequest request) {
+        return contentVersionService.conditional(ContentVersionService.Resource.EVENTS, request,
+                () -> eventService.getEventPage(status, from, to, cursor, limit, newestFirst));
     }
 
     @GetMapping("/{id}")
-    public Event getEventById(@PathVariable Long id) {
-        return eventService.getEventById(id);
+    public ResponseEntity<Event> getEventById(@PathVariable Long id,
+            org.springframework.web.context.request.WebRequest request) {
+        return contentVersionService.conditional(ContentVersionService.Resource.EVENTS, request,
+                () -> eventService.getEventById(id));
     }
 
     @DeleteMapping("/{id}")
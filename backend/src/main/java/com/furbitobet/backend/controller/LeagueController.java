@@ -1,11 +1,14 @@
 package com.furbitobet.backend.controller;
 
+import com.furbitobet.backend.service.ContentVersionService;
 import com.furbitobet.backend.service.ScraperService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,13 +21,25 @@ public class LeagueController {
     @Autowired
     private ScraperService scraperService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     @GetMapping("/standings")
-    public List<Map<String, String>> getStandings() {
-        return scraperService.getLeagueStandings();
+    public ResponseEntity<List<Map<String, String>>> getStandings(WebRequest request) {
+        // An expired cache is refreshed first, so the version reflects what would be returned
+        if (!scraperService.isStandingsCacheFresh()) {
+            scraperService.getLeagueStandings();
+        }
+        return contentVersionService.conditional(ContentVersionService.Resource.LEAGUE, request,
+                scraperService::getLeagueStandings);
     }
 
     @GetMapping("/results")
-    public List<Map<String, Object>> getMatchResults() {
-        return scraperService.getMatchResults();
+    public ResponseEntity<List<Map<String, Object>>> getMatchResults(WebRequest request) {
+        if (!scraperService.isResultsCacheFresh()) {
+            scraperService.getMatchResults();
+        }
+        return contentVersionService.conditional(ContentVersionService.Resource.LEAGUE, request,
+                scraperService::getMatchResults);
     }
 }
@@ -1,12 +1,14 @@
 package com.furbitobet.backend.controller;
 
 import com.furbitobet.backend.model.Player;
+import com.furbitobet.backend.service.ContentVersionService;
 import com.furbitobet.backend.service.PlayerService;
 import com.furbitobet.backend.service.PlayerOddsService;
 import com.furbitobet.backend.repository.PlayerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -26,18 +28,25 @@ public class PlayerController {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    private static final ContentVersionService.Resource PLAYERS = ContentVersionService.Resource.PLAYERS;
+
     @GetMapping
-    public List<Player> getAllPlayers() {
-        return playerService.getAllPlayers();
+    public ResponseEntity<List<Player>> getAllPlayers(WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request, playerService::getAllPlayers);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Player> getPlayerById(@PathVariable Long id) {
-        Player player = playerService.getPlayerById(id);
-        if (player != null) {
-            return ResponseEntity.ok(player);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<Player> getPlayerById(@PathVariable Long id, WebRequest request) {
+        return contentVersionService.conditionalEntity(PLAYERS, request, () -> {
+            Player player = playerService.getPlayerById(id);
+            if (player != null) {
+                return ResponseEntity.ok(player);
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
 
     @PostMapping
@@ -66,44 +75,47 @@ public class PlayerController {
      * Obtiene las estadísticas y cuotas calculadas de un jugador.
      */
     @GetMapping("/{id}/stats")
-    public ResponseEntity<PlayerOddsService.PlayerStatsDTO> getPlayerStats(@PathVariable Long id) {
-        PlayerOddsService.PlayerStatsDTO stats = playerOddsService.getPlayerStats(id);
-        if (stats != null) {
-            return ResponseEntity.ok(stats);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<PlayerOddsService.PlayerStatsDTO> getPlayerStats(@PathVariable Long id,
+            WebRequest request) {
+        return contentVersionService.conditionalEntity(PLAYERS, request, () -> {
+            PlayerOddsService.PlayerStatsDTO stats = playerOddsService.getPlayerStats(id);
+            if (stats != null) {
+                return ResponseEntity.ok(stats);
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
 
     /**
      * Obtiene los top goleadores.
      */
     @GetMapping("/top-scorers")
-    public List<Player> getTopScorers() {
-        return playerRepository.findTopScorers();
+    public ResponseEntity<List<Player>> getTopScorers(WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request, playerRepository::findTopScorers);
     }
 
     /**
      * Obtiene los top asistentes.
      */
     @GetMapping("/top-assisters")
-    public List<Player> getTopAssisters() {
-        return playerRepository.findTopAssisters();
+    public ResponseEntity<List<Player>> getTopAssisters(WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request, playerRepository::findTopAssisters);
     }
 
     /**
      * Obtiene los jugadores de un equipo específico.
      */
     @GetMapping("/team/{team}")
-    public List<Player> getPlayersByTeam(@PathVariable String team) {
-        return playerRepository.findByTeam(team);
+    public ResponseEntity<List<Player>> getPlayersByTeam(@PathVariable String team, WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request, () -> playerRepository.findByTeam(team));
     }
 
     /**
      * Obtiene todos los equipos disponibles.
      */
     @GetMapping("/teams")
-    public List<String> getAllTeams() {
-        return playerRepository.findAllTeams();
+    public ResponseEntity<List<String>> getAllTeams(WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request, playerRepository::findAllTeams);
     }
 
     /**
@@ -130,15 +142,19 @@ public class PlayerController {
      * Obtiene jugadores con mejor ratio de goles (mínimo partidos configurables).
      */
     @GetMapping("/best-goal-rate")
-    public List<Player> getPlayersByBestGoalRate(@RequestParam(defaultValue = "3") int minMatches) {
-        return playerRepository.findByBestGoalRate(minMatches);
+    public ResponseEntity<List<Player>> getPlayersByBestGoalRate(@RequestParam(defaultValue = "3") int minMatches,
+            WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request,
+                () -> playerRepository.findByBestGoalRate(minMatches));
     }
 
     /**
      * Obtiene jugadores con mejor ratio de asistencias.
      */
     @GetMapping("/best-assist-rate")
-    public List<Player> getPlayersByBestAssistRate(@RequestParam(defaultValue = "3") int minMatches) {
-        return playerRepository.findByBestAssistRate(minMatches);
+    public ResponseEntity<List<Player>> getPlayersByBestAssistRate(@RequestParam(defaultValue = "3") int minMatches,
+            WebRequest request) {
+        return contentVersionService.conditional(PLAYERS, request,
+                () -> playerRepository.findByBestAssistRate(minMatches));
     }
 }
@@ -28,6 +28,15 @@ public class RewardController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private com.furbitobet.backend.service.IdempotencyService idempotencyService;
+
+    @Autowired
+    private com.furbitobet.backend.service.WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private com.furbitobet.backend.service.WalletLedgerService walletLedgerService;
+
     @GetMapping("/spin-status")
     public ResponseEntity<?> getSpinStatus() {
         User user = getAuthenticatedUser();
@@ -53,46 +62,44 @@ public class RewardController {
     }
 
     @PostMapping("/spin")
-    @org.springframework.transaction.annotation.Transactional
-    public ResponseEntity<?> spinRoulette() {
+    public ResponseEntity<?> spinRoulette(
+            @RequestHeader(value = com.furbitobet.backend.service.IdempotencyService.HEADER, required = false) String idempotencyKey) {
         User user = getAuthenticatedUser();
         if (user == null) {
             return ResponseEntity.status(401).body("User not authenticated");
         }
 
-        // SECURITY: Synchronized block to prevent race condition
-        // Without this, two simultaneous requests could both pass cooldown check
-        synchronized (this) {
-            // Re-fetch user inside synchronized block to get latest state
-            user = userRepository.findById(user.getId()).orElse(null);
-            if (user == null) {
-                return ResponseEntity.status(401).body("User not found");
-            }
-
-            // Check cooldown
-            if (user.getLastSpinTime() != null) {
-                LocalDateTime nextSpin = user.getLastSpinTime().plus(12, ChronoUnit.HOURS);
-                if (LocalDateTime.now().isBefore(nextSpin)) {
-                    return ResponseEntity.badRequest().body("Cooldown active. Please wait.");
-                }
-            }
+        // Runs on the user's wallet lane; a retry with the same Idempotency-Key gets
+        // the original reward instead of a cooldown error
+        Long userId = user.getId();
+        return walletCommandExecutor.execute(userId,
+                () -> idempotencyService.execute(userId, "rewards/spin", idempotencyKey, () -> spin(userId)));
+    }
 
-            // Generate reward (10 to 50)
-            int rewardAmount = ThreadLocalRandom.current().nextInt(10, 51);
-            BigDecimal reward = new BigDecimal(rewardAmount);
+    private ResponseEntity<?> spin(Long userId) {
+        // Generate reward (10 to 50)
+        int rewardAmount = ThreadLocalRandom.current().nextInt(10, 51);
+        BigDecimal reward = new BigDecimal(rewardAmount);
 
-            // Update user
-            user.setBalance(user.getBalance().add(reward));
-            user.setLastSpinTime(LocalDateTime.now());
-            userRepository.save(user);
+        // SECURITY: The cooldown check and the spin time are a single conditional
+        // UPDATE, so two simultaneous spins can't both pass the check
+        LocalDateTime now = LocalDateTime.now();
+        if (userRepository.markSpin(userId, now, now.minus(12, ChronoUnit.HOURS)) == 0) {
+            if (!userRepository.existsById(userId)) {
+                return ResponseEntity.status(401).body("User not found");
+            }
+            return ResponseEntity.badRequest().body("Cooldown active. Please wait.");
+        }
+        walletLedgerService.credit(userId, reward, com.furbitobet.backend.model.WalletLedgerEntry.EntryType.SPIN_REWARD,
+                null, null);
+        User user = userRepository.findById(userId).orElseThrow();
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("reward", rewardAmount);
-            response.put("newBalance", user.getBalance());
-            response.put("message", "Congratulations! You won " + rewardAmount + "€");
+        Map<String, Object> response = new HashMap<>();
+        response.put("reward", rewardAmount);
+        response.put("newBalance", user.getBalance());
+        response.put("message", "Congratulations! You won " + rewardAmount + "€");
 
-            return ResponseEntity.ok(response);
-        }
+        return ResponseEntity.ok(response);
     }
 
     private User getAuthenticatedUser() {
@@ -0,0 +1,73 @@
+package com.furbitobet.backend.controller;
+
+import com.furbitobet.backend.model.User;
+import com.furbitobet.backend.security.JwtUtil;
+import com.furbitobet.backend.service.LiveUpdateService;
+import com.furbitobet.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class StreamController {
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    /**
+     * Server-Sent Events stream of odds, event and bet updates. Anonymous
+     * clients get the public messages. To also get updates for its own bets,
+     * a browser first calls POST /api/stream/token with its usual JWT and
+     * opens new EventSource("/api/stream?token=...") with the returned token
+     * (EventSource cannot send an Authorization header). Clients that can set
+     * headers may send the JWT as usual instead. An invalid or expired token
+     * is answered with 401 so the client can fetch a new one.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(required = false) String token,
+            Authentication authentication) {
+        Long userId = null;
+        if (token != null) {
+            userId = jwtUtil.extractStreamUserId(token);
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        } else if (authentication != null && authentication.isAuthenticated()) {
+            // /api/stream is excluded from open-in-view, so this lookup gives its
+            // connection back right away instead of holding it for the whole stream
+            userId = userService.findByUsername(authentication.getName()).map(u -> u.getId()).orElse(null);
+        }
+        return ResponseEntity.ok(liveUpdateService.subscribe(userId));
+    }
+
+    /**
+     * Token de corta duración (live.stream-token-expiration-ms) para abrir el
+     * stream desde un EventSource. Solo se comprueba al conectar.
+     */
+    @PostMapping("/token")
+    public Map<String, Object> streamToken(Authentication authentication) {
+        User user = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return Map.of("token", jwtUtil.generateStreamToken(user.getId()),
+                "expiresInMs", jwtUtil.getStreamTokenExpiration());
+    }
+}
@@ -38,9 +38,7 @@ public class UserController {
             throw new RuntimeException("Balance cannot be negative");
         }
 
-        User user = userService.getUserById(id);
-        user.setBalance(amount);
-        return userRepository.save(user);
+        return userService.setBalance(id, amount);
     }
 
     @PutMapping("/{id}/password")
@@ -50,9 +48,15 @@ public class UserController {
         return userRepository.save(user);
     }
 
+    @Autowired
+    private com.furbitobet.backend.service.ContentVersionService contentVersionService;
+
     @GetMapping("/ranking")
-    public List<User> getRanking() {
-        return userService.getRanking();
+    public org.springframework.http.ResponseEntity<List<User>> getRanking(
+            org.springframework.web.context.request.WebRequest request) {
+        return contentVersionService.conditional(
+                com.furbitobet.backend.service.ContentVersionService.Resource.RANKING, request,
+                userService::getRanking);
     }
 
     @DeleteMapping("/{id}")
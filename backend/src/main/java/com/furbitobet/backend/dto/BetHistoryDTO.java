@@ -0,0 +1,205 @@
+package com.furbitobet.backend.dto;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apuesta del historial de un usuario. Mantiene la forma JSON de la entidad
+ * Bet (outcomes[].event.name, etc.) pero sin el usuario ni las relaciones
+ * perezosas, así que se construye a partir de BetHistoryView sin más
+ * consultas.
+ */
+public class BetHistoryDTO {
+    private Long id;
+    private BigDecimal amount;
+    private BigDecimal winnings;
+    private BigDecimal potentialPayout;
+    private Bet.BetStatus status;
+    private LocalDateTime placedAt;
+    private List<OutcomeInfo> outcomes = new ArrayList<>();
+
+    public BetHistoryDTO(Long id, BigDecimal amount, BigDecimal winnings, BigDecimal potentialPayout,
+            Bet.BetStatus status, LocalDateTime placedAt) {
+        this.id = id;
+        this.amount = amount;
+        this.winnings = winnings;
+        this.potentialPayout = potentialPayout;
+        this.status = status;
+        this.placedAt = placedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getWinnings() {
+        return winnings;
+    }
+
+    public void setWinnings(BigDecimal winnings) {
+        this.winnings = winnings;
+    }
+
+    public BigDecimal getPotentialPayout() {
+        return potentialPayout;
+    }
+
+    public void setPotentialPayout(BigDecimal potentialPayout) {
+        this.potentialPayout = potentialPayout;
+    }
+
+    public Bet.BetStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Bet.BetStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public void setPlacedAt(LocalDateTime placedAt) {
+        this.placedAt = placedAt;
+    }
+
+    public List<OutcomeInfo> getOutcomes() {
+        return outcomes;
+    }
+
+    public void setOutcomes(List<OutcomeInfo> outcomes) {
+        this.outcomes = outcomes;
+    }
+
+    public static class OutcomeInfo {
+        private Long id;
+        private String description;
+        private BigDecimal odds;
+        private Outcome.OutcomeStatus status;
+        private String outcomeGroup;
+        private EventInfo event;
+
+        public OutcomeInfo(Long id, String description, BigDecimal odds, Outcome.OutcomeStatus status,
+                String outcomeGroup, EventInfo event) {
+            this.id = id;
+            this.description = description;
+            this.odds = odds;
+            this.status = status;
+            this.outcomeGroup = outcomeGroup;
+            this.event = event;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public BigDecimal getOdds() {
+            return odds;
+        }
+
+        public void setOdds(BigDecimal odds) {
+            this.odds = odds;
+        }
+
+        public Outcome.OutcomeStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Outcome.OutcomeStatus status) {
+            this.status = status;
+        }
+
+        public String getOutcomeGroup() {
+            return outcomeGroup;
+        }
+
+        public void setOutcomeGroup(String outcomeGroup) {
+            this.outcomeGroup = outcomeGroup;
+        }
+
+        public EventInfo getEvent() {
+            return event;
+        }
+
+        public void setEvent(EventInfo event) {
+            this.event = event;
+        }
+    }
+
+    public static class EventInfo {
+        private Long id;
+        private String name;
+        private LocalDateTime date;
+        private Event.EventStatus status;
+
+        public EventInfo(Long id, String name, LocalDateTime date, Event.EventStatus status) {
+            this.id = id;
+            this.name = name;
+            this.date = date;
+            this.status = status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public LocalDateTime getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDateTime date) {
+            this.date = date;
+        }
+
+        public Event.EventStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Event.EventStatus status) {
+            this.status = status;
+        }
+    }
+}
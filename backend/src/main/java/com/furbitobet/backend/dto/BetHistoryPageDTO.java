@@ -0,0 +1,32 @@
+package com.furbitobet.backend.dto;
+
+import java.util.List;
+
+/**
+ * Página del historial de apuestas. nextCursor es null en la última página.
+ */
+public class BetHistoryPageDTO {
+    private List<BetHistoryDTO> bets;
+    private String nextCursor;
+
+    public BetHistoryPageDTO(List<BetHistoryDTO> bets, String nextCursor) {
+        this.bets = bets;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BetHistoryDTO> getBets() {
+        return bets;
+    }
+
+    public void setBets(List<BetHistoryDTO> bets) {
+        this.bets = bets;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
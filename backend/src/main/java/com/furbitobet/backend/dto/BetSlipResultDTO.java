@@ -0,0 +1,66 @@
+package com.furbitobet.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de una apuesta dentro de un boleto múltiple (POST /api/bets/batch).
+ */
+public class BetSlipResultDTO {
+    private int index;
+    private boolean success;
+    private Long betId;
+    private BigDecimal amount;
+    private String error;
+
+    public BetSlipResultDTO(int index, boolean success, Long betId, BigDecimal amount, String error) {
+        this.index = index;
+        this.success = success;
+        this.betId = betId;
+        this.amount = amount;
+        this.error = error;
+    }
+
+    public static BetSlipResultDTO failed(int index, BigDecimal amount, String error) {
+        return new BetSlipResultDTO(index, false, null, amount, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Long getBetId() {
+        return betId;
+    }
+
+    public void setBetId(Long betId) {
+        this.betId = betId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,96 @@
+package com.furbitobet.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Oferta de cash-out de una apuesta pendiente.
+ */
+public class CashOutQuoteDTO {
+    private Long betId;
+    private BigDecimal stake;
+    // Producto de las cuotas, al colocar la apuesta, de las selecciones ya ganadas (las anuladas cuentan 1)
+    private BigDecimal settledOdds;
+    // Producto de las cuotas actuales de las selecciones abiertas
+    private BigDecimal openOdds;
+    // Lo que pagaría la apuesta si acierta el resto, a las cuotas con que se colocó
+    private BigDecimal projectedPayout;
+    private BigDecimal amount;
+    private boolean available;
+    private String reason;
+
+    public CashOutQuoteDTO(Long betId, BigDecimal stake, BigDecimal settledOdds, BigDecimal openOdds,
+            BigDecimal projectedPayout, BigDecimal amount, boolean available, String reason) {
+        this.betId = betId;
+        this.stake = stake;
+        this.settledOdds = settledOdds;
+        this.openOdds = openOdds;
+        this.projectedPayout = projectedPayout;
+        this.amount = amount;
+        this.available = available;
+        this.reason = reason;
+    }
+
+    public Long getBetId() {
+        return betId;
+    }
+
+    public void setBetId(Long betId) {
+        this.betId = betId;
+    }
+
+    public BigDecimal getStake() {
+        return stake;
+    }
+
+    public void setStake(BigDecimal stake) {
+        this.stake = stake;
+    }
+
+    public BigDecimal getSettledOdds() {
+        return settledOdds;
+    }
+
+    public void setSettledOdds(BigDecimal settledOdds) {
+        this.settledOdds = settledOdds;
+    }
+
+    public BigDecimal getOpenOdds() {
+        return openOdds;
+    }
+
+    public void setOpenOdds(BigDecimal openOdds) {
+        this.openOdds = openOdds;
+    }
+
+    public BigDecimal getProjectedPayout() {
+        return projectedPayout;
+    }
+
+    public void setProjectedPayout(BigDecimal projectedPayout) {
+        this.projectedPayout = projectedPayout;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,32 @@
+package com.furbitobet.backend.dto;
+
+import java.util.List;
+
+/**
+ * Página del catálogo de eventos. nextCursor es null en la última página.
+ */
+public class EventPageDTO {
+    private List<EventSummaryDTO> events;
+    private String nextCursor;
+
+    public EventPageDTO(List<EventSummaryDTO> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventSummaryDTO> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<EventSummaryDTO> events) {
+        this.events = events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
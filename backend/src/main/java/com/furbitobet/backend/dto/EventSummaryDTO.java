@@ -0,0 +1,84 @@
+package com.furbitobet.backend.dto;
+
+import com.furbitobet.backend.model.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento sin sus selecciones, para listados del catálogo.
+ */
+public class EventSummaryDTO {
+    private Long id;
+    private String name;
+    private LocalDateTime date;
+    private Event.EventStatus status;
+    private Integer homeGoals;
+    private Integer awayGoals;
+    private long outcomeCount;
+
+    public EventSummaryDTO(Long id, String name, LocalDateTime date, Event.EventStatus status, Integer homeGoals, Integer awayGoals, long outcomeCount) {
+        this.id = id;
+        this.name = name;
+        this.date = date;
+        this.status = status;
+        this.homeGoals = homeGoals;
+        this.awayGoals = awayGoals;
+        this.outcomeCount = outcomeCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDateTime date) {
+        this.date = date;
+    }
+
+    public Event.EventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Event.EventStatus status) {
+        this.status = status;
+    }
+
+    public Integer getHomeGoals() {
+        return homeGoals;
+    }
+
+    public void setHomeGoals(Integer homeGoals) {
+        this.homeGoals = homeGoals;
+    }
+
+    public Integer getAwayGoals() {
+        return awayGoals;
+    }
+
+    public void setAwayGoals(Integer awayGoals) {
+        this.awayGoals = awayGoals;
+    }
+
+    public long getOutcomeCount() {
+        return outcomeCount;
+    }
+
+    public void setOutcomeCount(long outcomeCount) {
+        this.outcomeCount = outcomeCount;
+    }
+}
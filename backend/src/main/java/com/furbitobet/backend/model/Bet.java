@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "bets")
+@Table(name = "bets", indexes = @Index(name = "idx_bets_user_placed_at", columnList = "user_id, placed_at, id"))
 public class Bet {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,20 +17,43 @@ public class Bet {
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy: repository methods that need the outcomes fetch them with an entity graph or fetch join
+    @ManyToMany
     @JoinTable(name = "bet_outcomes", joinColumns = @JoinColumn(name = "bet_id"), inverseJoinColumns = @JoinColumn(name = "outcome_id"))
     private java.util.List<Outcome> outcomes;
 
+    // Cuota de cada selección (outcome id -> cuota) al colocar la apuesta; se paga con ella y el cash-out
+    // la compara con la cuota actual. Vacío en apuestas anteriores a esta columna.
+    // Se carga en lotes para que liquidar cientos de apuestas no haga una consulta por apuesta
+    @ElementCollection
+    @org.hibernate.annotations.BatchSize(size = 200)
+    @CollectionTable(name = "bet_placed_odds", joinColumns = @JoinColumn(name = "bet_id"))
+    @MapKeyColumn(name = "outcome_id")
+    @Column(name = "odds")
+    private java.util.Map<Long, BigDecimal> placedOdds;
+
     private BigDecimal amount;
 
     private BigDecimal winnings;
 
+    // Importe por el producto de cuotas al colocar la apuesta (null en apuestas antiguas)
+    private BigDecimal potentialPayout;
+
     @Enumerated(EnumType.STRING)
     private BetStatus status;
 
     private LocalDateTime placedAt;
 
+    /**
+     * Cuota con la que se colocó la selección. Las apuestas anteriores a
+     * bet_placed_odds no la guardan y usan la cuota actual.
+     */
+    public BigDecimal oddsFor(Outcome outcome) {
+        BigDecimal placed = placedOdds != null ? placedOdds.get(outcome.getId()) : null;
+        return placed != null ? placed : outcome.getOdds();
+    }
+
     public enum BetStatus {
-        PENDING, WON, LOST, CANCELLED, VOID
+        PENDING, WON, LOST, CANCELLED, VOID, CASHED_OUT
     }
 }
@@ -0,0 +1,50 @@
+package com.furbitobet.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Email pendiente de envío. Se escribe en la misma transacción que el cambio
+ * que lo origina y lo envía EmailOutboxDispatcher en segundo plano.
+ */
+@Entity
+@Data
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_status", columnList = "status, id"))
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    // Instancia que tiene reservado el email para enviarlo y desde cuándo; la
+    // reserva caduca tras email.outbox.claim-timeout-ms por si esa instancia cae
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    public enum OutboxStatus {
+        PENDING, SENT, FAILED
+    }
+}
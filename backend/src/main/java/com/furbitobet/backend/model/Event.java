@@ -7,7 +7,7 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "events")
+@Table(name = "events", indexes = @Index(name = "idx_events_date_id", columnList = "date, id"))
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,46 @@
+package com.furbitobet.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada de una petición con cabecera Idempotency-Key. Un
+ * reintento con la misma clave del mismo usuario recibe esta respuesta sin
+ * volver a ejecutar la operación.
+ */
+@Entity
+@Data
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_scope_key", columnNames = {
+        "user_id", "scope", "idempotency_key" }), indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Operación protegida, p.ej. "bets" o "rewards/spin"
+    @Column(nullable = false, length = 32)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    // SHA-256 del cuerpo de la petición original; null si la operación no tiene cuerpo
+    @Column(length = 64)
+    private String requestHash;
+
+    private int statusCode;
+
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -14,6 +14,9 @@ public class Outcome {
 
     private String description;
     private BigDecimal odds;
+
+    // Sube cada vez que cambia la cuota; el cliente lo devuelve al apostar
+    private Long oddsVersion;
     private String outcomeGroup;
 
     @ManyToOne
@@ -24,7 +27,39 @@ public class Outcome {
     @Enumerated(EnumType.STRING)
     private OutcomeStatus status;
 
+    // Metadatos de mercado derivados de outcomeGroup/description al crear la selección
+    private String marketKey;
+
+    @Enumerated(EnumType.STRING)
+    private MarketDirection direction;
+
+    private BigDecimal lineValue;
+
+    private Long playerId;
+
+    /**
+     * Cambia la cuota e incrementa oddsVersion si el precio es distinto.
+     */
+    public void updateOdds(BigDecimal newOdds) {
+        if (odds != null && odds.compareTo(newOdds) == 0) {
+            return;
+        }
+        odds = newOdds;
+        oddsVersion = (oddsVersion != null ? oddsVersion : 0L) + 1;
+    }
+
+    @PrePersist
+    void initOddsVersion() {
+        if (oddsVersion == null) {
+            oddsVersion = 1L;
+        }
+    }
+
     public enum OutcomeStatus {
         PENDING, WON, LOST, VOID
     }
+
+    public enum MarketDirection {
+        NONE, OVER, UNDER
+    }
 }
@@ -0,0 +1,25 @@
+package com.furbitobet.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * Exposición acumulada de una selección: lo apostado, el pago potencial y el
+ * número de apuestas PENDIENTES que la incluyen. Se mantiene de forma
+ * incremental al colocar, cancelar y liquidar apuestas.
+ */
+@Entity
+@Data
+@Table(name = "outcome_exposure")
+public class OutcomeExposure {
+    @Id
+    @Column(name = "outcome_id")
+    private Long outcomeId;
+
+    private BigDecimal totalStaked = BigDecimal.ZERO;
+
+    private BigDecimal potentialPayout = BigDecimal.ZERO;
+
+    private long betCount;
+}
@@ -35,8 +35,14 @@ public class User {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private java.time.LocalDateTime resetTokenExpiry;
 
+    // Instantánea compactada del saldo; los cambios van a wallet_ledger (ver getBalance)
     private BigDecimal balance = new BigDecimal("100.00");
 
+    // Movimientos de wallet_ledger todavía no compactados en balance
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @org.hibernate.annotations.Formula("(SELECT COALESCE(SUM(l.amount), 0) FROM wallet_ledger l WHERE l.user_id = id AND l.compacted = false)")
+    private BigDecimal pendingLedgerTotal;
+
     @Transient
     private BigDecimal grossProfit;
 
@@ -68,4 +74,14 @@ public class User {
     public enum Role {
         ADMIN, USER
     }
+
+    /**
+     * Saldo actual: la instantánea más los movimientos pendientes de compactar.
+     */
+    public BigDecimal getBalance() {
+        if (balance == null) {
+            return pendingLedgerTotal;
+        }
+        return pendingLedgerTotal != null ? balance.add(pendingLedgerTotal) : balance;
+    }
 }
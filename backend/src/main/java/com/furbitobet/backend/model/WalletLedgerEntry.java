@@ -0,0 +1,57 @@
+package com.furbitobet.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del monedero de un usuario. La tabla es de solo inserción: el
+ * saldo de un usuario es users.balance (la instantánea compactada) más la suma
+ * de sus movimientos todavía no compactados. WalletLedgerService pliega
+ * periódicamente esos movimientos en la instantánea y los marca como
+ * compactados, pero nunca los borra, así que sirven de auditoría.
+ */
+@Entity
+@Data
+@Table(name = "wallet_ledger", indexes = {
+        @Index(name = "idx_wallet_ledger_user_compacted", columnList = "user_id, compacted"),
+        @Index(name = "idx_wallet_ledger_bet", columnList = "bet_id") })
+public class WalletLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Positivo para abonos, negativo para cargos
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private EntryType entryType;
+
+    @Column(name = "bet_id")
+    private Long betId;
+
+    private String description;
+
+    private boolean compacted;
+
+    private LocalDateTime createdAt;
+
+    public enum EntryType {
+        BET_STAKE,
+        BET_CANCEL_REFUND,
+        BET_PAYOUT,
+        BET_REFUND,
+        SETTLEMENT_CORRECTION,
+        EVENT_CANCEL_REFUND,
+        SPIN_REWARD,
+        ADMIN_ADJUSTMENT,
+        ADMIN_BONUS,
+        CASH_OUT
+    }
+}
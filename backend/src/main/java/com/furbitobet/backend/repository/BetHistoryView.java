@@ -0,0 +1,45 @@
+package com.furbitobet.backend.repository;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana del historial de apuestas: una por apuesta y selección. Las
+ * columnas de la selección y del evento son null si la apuesta no tiene
+ * selecciones.
+ */
+public interface BetHistoryView {
+    Long getBetId();
+
+    BigDecimal getAmount();
+
+    BigDecimal getWinnings();
+
+    BigDecimal getPotentialPayout();
+
+    Bet.BetStatus getStatus();
+
+    LocalDateTime getPlacedAt();
+
+    Long getOutcomeId();
+
+    String getOutcomeDescription();
+
+    BigDecimal getOdds();
+
+    Outcome.OutcomeStatus getOutcomeStatus();
+
+    String getOutcomeGroup();
+
+    Long getEventId();
+
+    String getEventName();
+
+    LocalDateTime getEventDate();
+
+    Event.EventStatus getEventStatus();
+}
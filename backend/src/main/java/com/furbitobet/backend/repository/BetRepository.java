@@ -1,16 +1,94 @@
 package com.furbitobet.backend.repository;
 
 import com.furbitobet.backend.model.Bet;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface BetRepository extends JpaRepository<Bet, Long> {
+    // Apuestas con usuario, selecciones y eventos cargados en la misma consulta
+    @EntityGraph(attributePaths = { "user", "outcomes", "outcomes.event" })
     List<Bet> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = { "user", "outcomes", "outcomes.event" })
     List<Bet> findByStatus(Bet.BetStatus status);
 
+    @Query("SELECT b.id FROM Bet b WHERE b.status = :status ORDER BY b.id")
+    List<Long> findIdsByStatus(@Param("status") Bet.BetStatus status);
+
+    @EntityGraph(attributePaths = { "user", "outcomes", "outcomes.event" })
     List<Bet> findDistinctByOutcomes_Event_Id(Long eventId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT b.user.id, SUM(b.winnings), SUM(b.amount) FROM Bet b WHERE b.status IN ('WON', 'LOST', 'VOID') GROUP BY b.user.id")
+    String HISTORY_SELECT = "SELECT b.id AS betId, b.amount AS amount, b.winnings AS winnings, " +
+            "b.potentialPayout AS potentialPayout, b.status AS status, b.placedAt AS placedAt, o.id AS outcomeId, " +
+            "o.description AS outcomeDescription, o.odds AS odds, o.status AS outcomeStatus, " +
+            "o.outcomeGroup AS outcomeGroup, e.id AS eventId, e.name AS eventName, e.date AS eventDate, " +
+            "e.status AS eventStatus FROM Bet b LEFT JOIN b.outcomes o LEFT JOIN o.event e ";
+
+    // Filas del historial de las apuestas indicadas (una por apuesta y selección, sin
+    // entidades), en el orden de la paginación
+    @Query(HISTORY_SELECT + "WHERE b.id IN :ids ORDER BY b.placedAt DESC, b.id DESC, o.id")
+    List<BetHistoryView> findHistoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Página de ids del historial anterior al cursor (placedAt, id), recorriendo idx_bets_user_placed_at
+    @Query("SELECT b.id FROM Bet b WHERE b.user.id = :userId AND b.status IN :statuses AND b.placedAt >= :from " +
+            "AND (b.placedAt < :beforeDate OR (b.placedAt = :beforeDate AND b.id < :beforeId)) " +
+            "ORDER BY b.placedAt DESC, b.id DESC")
+    List<Long> findHistoryPageIds(@Param("userId") Long userId,
+            @Param("statuses") Collection<Bet.BetStatus> statuses, @Param("from") java.time.LocalDateTime from,
+            @Param("beforeDate") java.time.LocalDateTime beforeDate, @Param("beforeId") Long beforeId,
+            org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT b.user.id, SUM(b.winnings), SUM(b.amount) FROM Bet b WHERE b.status IN ('WON', 'LOST', 'VOID', 'CASHED_OUT') GROUP BY b.user.id")
     List<Object[]> findNetProfitStats();
+
+    // IDs de apuestas con al menos una selección del evento (vía bet_outcomes)
+    @Query("SELECT DISTINCT b.id FROM Bet b JOIN b.outcomes o WHERE o.event.id = :eventId AND b.status = :status ORDER BY b.id")
+    List<Long> findIdsByEventIdAndStatus(@Param("eventId") Long eventId, @Param("status") Bet.BetStatus status);
+
+    // Pares (id de apuesta, id de usuario) de las apuestas del evento en un estado, para particionar por usuario
+    @Query("SELECT DISTINCT b.id, b.user.id FROM Bet b JOIN b.outcomes o WHERE o.event.id = :eventId AND b.status = :status")
+    List<Object[]> findIdAndUserIdByEventIdAndStatus(@Param("eventId") Long eventId,
+            @Param("status") Bet.BetStatus status);
+
+    // Pares (id de apuesta, id de usuario) de las apuestas con alguna de las selecciones indicadas
+    @Query("SELECT DISTINCT b.id, b.user.id FROM Bet b JOIN b.outcomes o WHERE o.id IN :outcomeIds ORDER BY b.id")
+    List<Object[]> findIdAndUserIdByOutcomeIdIn(@Param("outcomeIds") Collection<Long> outcomeIds);
+
+    // Apuestas pendientes del evento con alguna selección PERDIDA: id, usuario, email e id de usuario para avisar
+    @Query(value = "SELECT b.id, u.username, u.email, u.id AS user_id FROM bets b JOIN users u ON u.id = b.user_id " +
+            "WHERE b.status = 'PENDING' " +
+            "AND EXISTS (SELECT 1 FROM bet_outcomes bo JOIN outcomes o ON o.id = bo.outcome_id " +
+            "WHERE bo.bet_id = b.id AND o.event_id = :eventId) " +
+            "AND EXISTS (SELECT 1 FROM bet_outcomes bo JOIN outcomes o ON o.id = bo.outcome_id " +
+            "WHERE bo.bet_id = b.id AND o.status = 'LOST')", nativeQuery = true)
+    List<Object[]> findPendingLostBetRowsByEventId(@Param("eventId") Long eventId);
+
+    // Marca como LOST en un solo UPDATE las apuestas pendientes del evento con alguna selección PERDIDA
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE bets b SET status = 'LOST', winnings = 0 " +
+            "WHERE b.status = 'PENDING' " +
+            "AND EXISTS (SELECT 1 FROM bet_outcomes bo JOIN outcomes o ON o.id = bo.outcome_id " +
+            "WHERE bo.bet_id = b.id AND o.event_id = :eventId) " +
+            "AND EXISTS (SELECT 1 FROM bet_outcomes bo JOIN outcomes o ON o.id = bo.outcome_id " +
+            "WHERE bo.bet_id = b.id AND o.status = 'LOST')", nativeQuery = true)
+    int markPendingLostBetsByEventId(@Param("eventId") Long eventId);
+
+    // Carga un lote de apuestas con sus selecciones y usuario en una sola consulta
+    @Query("SELECT DISTINCT b FROM Bet b JOIN FETCH b.user LEFT JOIN FETCH b.outcomes o LEFT JOIN FETCH o.event WHERE b.id IN :ids")
+    List<Bet> findAllWithOutcomesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cuotas de colocación de un lote de apuestas: filas (betId, outcomeId, odds)
+    @Query("SELECT b.id, KEY(p), VALUE(p) FROM Bet b JOIN b.placedOdds p WHERE b.id IN :ids")
+    List<Object[]> findPlacedOddsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cierra una apuesta por cash-out solo si sigue pendiente; 0 filas si otra operación se adelantó
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE bets SET status = 'CASHED_OUT', winnings = :amount WHERE id = :id AND status = 'PENDING'",
+            nativeQuery = true)
+    int markCashedOut(@Param("id") Long id, @Param("amount") java.math.BigDecimal amount);
 }
@@ -0,0 +1,27 @@
+package com.furbitobet.backend.repository;
+
+import com.furbitobet.backend.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    // Reserva el siguiente lote de emails pendientes a partir de un id. SKIP LOCKED
+    // hace que dos instancias que reservan a la vez se repartan las filas en lugar
+    // de enviar las mismas
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE email_outbox SET claim_token = :token, claimed_at = :now WHERE id IN (" +
+            "SELECT id FROM email_outbox WHERE status = 'PENDING' AND id > :afterId " +
+            "AND (claimed_at IS NULL OR claimed_at < :expiredBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int claimPending(@Param("token") String token, @Param("now") LocalDateTime now,
+            @Param("expiredBefore") LocalDateTime expiredBefore, @Param("afterId") Long afterId,
+            @Param("limit") int limit);
+
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+}
@@ -1,9 +1,35 @@
 package com.furbitobet.backend.repository;
 
+import com.furbitobet.backend.dto.EventSummaryDTO;
 import com.furbitobet.backend.model.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByStatus(Event.EventStatus status);
+
+    // Catálogo paginado por (date, id) a partir del cursor, con el número de selecciones en una sola consulta
+    @Query("SELECT new com.furbitobet.backend.dto.EventSummaryDTO(e.id, e.name, e.date, e.status, e.homeGoals, " +
+            "e.awayGoals, (SELECT COUNT(o) FROM Outcome o WHERE o.event = e)) FROM Event e " +
+            "WHERE e.status IN :statuses AND e.date >= :from AND e.date < :to " +
+            "AND (e.date > :afterDate OR (e.date = :afterDate AND e.id > :afterId)) " +
+            "ORDER BY e.date, e.id")
+    List<EventSummaryDTO> findSummaries(@Param("statuses") Collection<Event.EventStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Igual que findSummaries, de más reciente a más antiguo (resultados e historial)
+    @Query("SELECT new com.furbitobet.backend.dto.EventSummaryDTO(e.id, e.name, e.date, e.status, e.homeGoals, " +
+            "e.awayGoals, (SELECT COUNT(o) FROM Outcome o WHERE o.event = e)) FROM Event e " +
+            "WHERE e.status IN :statuses AND e.date >= :from AND e.date < :to " +
+            "AND (e.date < :beforeDate OR (e.date = :beforeDate AND e.id < :beforeId)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EventSummaryDTO> findSummariesNewestFirst(@Param("statuses") Collection<Event.EventStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("beforeDate") LocalDateTime beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
 }
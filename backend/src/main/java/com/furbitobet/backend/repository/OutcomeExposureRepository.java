@@ -0,0 +1,46 @@
+package com.furbitobet.backend.repository;
+
+import com.furbitobet.backend.model.OutcomeExposure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutcomeExposureRepository extends JpaRepository<OutcomeExposure, Long> {
+
+    @Query("SELECT e FROM OutcomeExposure e WHERE e.outcomeId IN (SELECT o.id FROM Outcome o WHERE o.event.id = :eventId)")
+    List<OutcomeExposure> findByEventId(@Param("eventId") Long eventId);
+
+    // Suma (sign = 1) o resta (sign = -1) la contribución de las apuestas indicadas a cada una de sus selecciones
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO outcome_exposure (outcome_id, total_staked, potential_payout, bet_count) " +
+            "SELECT bo.outcome_id, :sign * SUM(b.amount), :sign * SUM(COALESCE(b.potential_payout, 0)), :sign * COUNT(*) "
+            +
+            "FROM bets b JOIN bet_outcomes bo ON bo.bet_id = b.id WHERE b.id IN (:betIds) GROUP BY bo.outcome_id " +
+            "ON CONFLICT (outcome_id) DO UPDATE SET " +
+            "total_staked = outcome_exposure.total_staked + EXCLUDED.total_staked, " +
+            "potential_payout = outcome_exposure.potential_payout + EXCLUDED.potential_payout, " +
+            "bet_count = outcome_exposure.bet_count + EXCLUDED.bet_count", nativeQuery = true)
+    int applyBets(@Param("betIds") Collection<Long> betIds, @Param("sign") int sign);
+
+    // Filas de las selecciones de un evento, antes de borrarlo
+    @Modifying
+    @Query(value = "DELETE FROM outcome_exposure WHERE outcome_id IN (SELECT id FROM outcomes WHERE event_id = :eventId)",
+            nativeQuery = true)
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "DELETE FROM outcome_exposure", nativeQuery = true)
+    int deleteAllRows();
+
+    // Recalcula toda la tabla a partir de las apuestas pendientes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO outcome_exposure (outcome_id, total_staked, potential_payout, bet_count) " +
+            "SELECT bo.outcome_id, SUM(b.amount), SUM(COALESCE(b.potential_payout, 0)), COUNT(*) " +
+            "FROM bets b JOIN bet_outcomes bo ON bo.bet_id = b.id WHERE b.status = 'PENDING' GROUP BY bo.outcome_id",
+            nativeQuery = true)
+    int insertFromPendingBets();
+}
@@ -36,6 +36,27 @@ public interface OutcomeRepository extends JpaRepository<Outcome, Long> {
     @Query("SELECT o.outcomeGroup, COUNT(o) FROM Outcome o WHERE o.event.id = :eventId GROUP BY o.outcomeGroup")
     List<Object[]> countOutcomesByGroupForEvent(@Param("eventId") Long eventId);
     
+    // Actualiza el estado de varias selecciones en un solo UPDATE; limpia el contexto para
+    // que quien haya cargado esas selecciones no siga viendo el estado anterior
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Outcome o SET o.status = :status WHERE o.id IN :ids")
+    int updateStatusByIdIn(@Param("status") Outcome.OutcomeStatus status, @Param("ids") java.util.Collection<Long> ids);
+    
+    // Selecciones de eventos abiertos con su evento, para la instantánea en memoria
+    @Query("SELECT o FROM Outcome o JOIN FETCH o.event e WHERE e.status IS NULL OR e.status NOT IN :closed")
+    List<Outcome> findAllWithEventByEventStatusNotIn(@Param("closed") java.util.Collection<com.furbitobet.backend.model.Event.EventStatus> closed);
+    
+    @Query("SELECT o FROM Outcome o JOIN FETCH o.event e WHERE e.id = :eventId")
+    List<Outcome> findAllWithEventByEventId(@Param("eventId") Long eventId);
+    
+    @Query("SELECT o FROM Outcome o JOIN FETCH o.event WHERE o.id IN :ids")
+    List<Outcome> findAllWithEventByIdIn(@Param("ids") java.util.Collection<Long> ids);
+    
+    // Versión de cuota, estado y hora de inicio actuales, para detectar una instantánea desfasada
+    @Query("SELECT o.id, o.oddsVersion, e.status, e.date FROM Outcome o JOIN o.event e WHERE o.id IN :ids")
+    List<Object[]> findVersionsByIdIn(@Param("ids") java.util.Collection<Long> ids);
+    
     // Eliminar outcomes de un grupo específico para un evento
     void deleteByEventIdAndOutcomeGroup(Long eventId, String outcomeGroup);
 }
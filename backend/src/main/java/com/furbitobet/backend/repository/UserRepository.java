@@ -19,11 +19,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     java.util.List<User> findByRoleNotOrderByBalanceDesc(User.Role role);
 
+    // Ranking por saldo actual (instantánea más movimientos sin compactar)
+    @org.springframework.data.jpa.repository.Query("SELECT u FROM User u WHERE u.role <> :role ORDER BY u.balance + u.pendingLedgerTotal DESC")
+    java.util.List<User> findRankingExcludingRole(@org.springframework.data.repository.query.Param("role") User.Role role);
+
     Optional<User> findByConfirmationToken(String confirmationToken);
 
+    // IDs de los usuarios salvo los del rol indicado, para abonos a todos
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.role IS NULL OR u.role <> :role ORDER BY u.id")
+    java.util.List<Long> findIdsByRoleNot(@org.springframework.data.repository.query.Param("role") User.Role role);
+
     // SECURITY: Pessimistic write lock to prevent race conditions in balance
     // updates
     @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
     @org.springframework.data.jpa.repository.Query("SELECT u FROM User u WHERE u.id = :id")
     Optional<User> findByIdWithLock(@org.springframework.data.repository.query.Param("id") Long id);
+
+    // Marca la tirada de la ruleta solo si ha pasado el tiempo de espera
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.lastSpinTime = :now WHERE u.id = :id AND (u.lastSpinTime IS NULL OR u.lastSpinTime < :cutoff)")
+    int markSpin(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now,
+            @org.springframework.data.repository.query.Param("cutoff") java.time.LocalDateTime cutoff);
 }
@@ -0,0 +1,38 @@
+package com.furbitobet.backend.repository;
+
+import com.furbitobet.backend.model.WalletLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface WalletLedgerRepository extends JpaRepository<WalletLedgerEntry, Long> {
+
+    List<WalletLedgerEntry> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    // Saldo disponible: instantánea más movimientos sin compactar (null si el usuario no existe)
+    @Query(value = "SELECT u.balance + COALESCE((SELECT SUM(l.amount) FROM wallet_ledger l " +
+            "WHERE l.user_id = u.id AND l.compacted = false), 0) FROM users u WHERE u.id = :userId", nativeQuery = true)
+    BigDecimal findAvailableBalance(@Param("userId") Long userId);
+
+    // Un abono por apuesta ganada o anulada, en un único INSERT
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO wallet_ledger (user_id, amount, entry_type, bet_id, compacted, created_at) " +
+            "SELECT b.user_id, b.winnings, CASE WHEN b.status = 'VOID' THEN 'BET_REFUND' ELSE 'BET_PAYOUT' END, " +
+            "b.id, false, now() FROM bets b WHERE b.id IN (:betIds) AND b.winnings > 0", nativeQuery = true)
+    int creditWinningsForBets(@Param("betIds") Collection<Long> betIds);
+
+    // Pliega en users.balance los movimientos sin compactar y los marca, en una sola sentencia
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH moved AS (UPDATE wallet_ledger SET compacted = true WHERE compacted = false " +
+            "RETURNING user_id, amount) " +
+            "UPDATE users u SET balance = u.balance + t.total " +
+            "FROM (SELECT user_id, SUM(amount) AS total FROM moved GROUP BY user_id) t " +
+            "WHERE u.id = t.user_id", nativeQuery = true)
+    int compact();
+}
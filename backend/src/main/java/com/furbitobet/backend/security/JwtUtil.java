@@ -23,12 +23,21 @@ public class JwtUtil {
     @org.springframework.beans.factory.annotation.Value("${jwt.expiration}")
     private long JWT_EXPIRATION;
 
+    @org.springframework.beans.factory.annotation.Value("${live.stream-token-expiration-ms:60000}")
+    private long STREAM_TOKEN_EXPIRATION;
+
     private Key SECRET_KEY;
 
+    // Stream tokens travel in a URL, so they are signed with their own key and
+    // are never accepted as a Bearer token by JwtRequestFilter
+    private Key STREAM_KEY;
+
     // Initialize SECRET_KEY after SECRET_STRING is injected
     @jakarta.annotation.PostConstruct
     public void init() {
         this.SECRET_KEY = Keys.hmacShaKeyFor(SECRET_STRING.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        this.STREAM_KEY = Keys.hmacShaKeyFor(
+                (SECRET_STRING + ":stream").getBytes(java.nio.charset.StandardCharsets.UTF_8));
     }
 
     public String extractUsername(String token) {
@@ -63,6 +72,33 @@ public class JwtUtil {
                 .signWith(SECRET_KEY, SignatureAlgorithm.HS256).compact();
     }
 
+    /**
+     * Short-lived token for GET /api/stream?token=..., since a browser
+     * EventSource cannot send an Authorization header. It carries the user id
+     * so the stream never has to look the user up.
+     */
+    public String generateStreamToken(Long userId) {
+        return Jwts.builder().setSubject(userId.toString()).setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + STREAM_TOKEN_EXPIRATION))
+                .signWith(STREAM_KEY, SignatureAlgorithm.HS256).compact();
+    }
+
+    public long getStreamTokenExpiration() {
+        return STREAM_TOKEN_EXPIRATION;
+    }
+
+    /**
+     * @return the user id of a valid stream token, or null if it is invalid or expired
+     */
+    public Long extractStreamUserId(String token) {
+        try {
+            return Long.valueOf(Jwts.parserBuilder().setSigningKey(STREAM_KEY).build().parseClaimsJws(token)
+                    .getBody().getSubject());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
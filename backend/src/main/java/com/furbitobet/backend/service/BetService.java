@@ -3,6 +3,7 @@ package com.furbitobet.backend.service;
 import com.furbitobet.backend.model.Bet;
 import com.furbitobet.backend.model.Outcome;
 import com.furbitobet.backend.model.User;
+import com.furbitobet.backend.model.WalletLedgerEntry;
 import com.furbitobet.backend.repository.BetRepository;
 import com.furbitobet.backend.repository.OutcomeRepository;
 import com.furbitobet.backend.repository.UserRepository;
@@ -13,6 +14,8 @@ import java.math.BigDecimal;
 
 @Service
 public class BetService {
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BetService.class);
+
     @Autowired
     private BetRepository betRepository;
 
@@ -22,8 +25,26 @@ public class BetService {
     @Autowired
     private OutcomeRepository outcomeRepository;
 
+    @Autowired
+    private ExposureService exposureService;
+
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
     @Transactional
-    public Bet placeBet(Long userId, java.util.List<Long> outcomeIds, BigDecimal amount) {
+    public com.furbitobet.backend.dto.BetHistoryDTO placeBet(Long userId, java.util.List<Long> outcomeIds,
+            BigDecimal amount) {
+        return placeBet(userId, outcomeIds, amount, null);
+    }
+
+    /**
+     * Places a bet. When oddsVersions (outcome id -> oddsVersion the client
+     * saw) is given, the bet is rejected if any of those prices has changed.
+     * Returns the bet in the same shape as the history, built from the snapshot.
+     */
+    @Transactional
+    public com.furbitobet.backend.dto.BetHistoryDTO placeBet(Long userId, java.util.List<Long> outcomeIds,
+            BigDecimal amount, java.util.Map<Long, Long> oddsVersions) {
         if (userId == null)
             throw new IllegalArgumentException("User ID cannot be null");
         if (outcomeIds == null)
@@ -36,145 +57,320 @@ public class BetService {
             throw new IllegalArgumentException("Bet amount must be positive");
         }
 
-        // SECURITY: Use pessimistic lock to prevent race condition
-        // Without this, two simultaneous bets could both check balance=100,
-        // then both subtract 100, resulting in balance=-100
-        User user = userRepository.findByIdWithLock(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        java.util.List<Outcome> outcomes = outcomeRepository.findAllById(outcomeIds);
+        // Validation reads the in-memory outcome snapshot and runs without any
+        // lock; the balance is only touched by the ledger debit below
+        java.util.List<OutcomeSnapshotService.Entry> selection = outcomeSnapshotService.getAll(outcomeIds);
 
-        if (outcomes.isEmpty()) {
+        if (selection.isEmpty()) {
             throw new RuntimeException("No outcomes selected");
         }
 
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        validateSelection(selection, now);
+        checkOddsVersions(selection, oddsVersions);
+        // The snapshot is per instance: confirm the prices with the database before debiting
+        java.util.Set<Long> stale = outcomeSnapshotService.findStale(selection);
+        if (!stale.isEmpty()) {
+            throw new RuntimeException("Odds have changed for outcomes " + stale + ", please review your bet");
+        }
 
-        // Check if any event is completed, cancelled, or ALREADY STARTED
-        for (Outcome outcome : outcomes) {
-            if (outcome.getEvent().getStatus() == com.furbitobet.backend.model.Event.EventStatus.COMPLETED ||
-                    outcome.getEvent().getStatus() == com.furbitobet.backend.model.Event.EventStatus.CANCELLED) {
-                throw new RuntimeException(
-                        "Cannot place bet on completed or cancelled event: " + outcome.getEvent().getName());
-            }
-            if (outcome.getEvent().getDate().isBefore(now)) {
-                throw new RuntimeException(
-                        "Cannot place bet on started event: " + outcome.getEvent().getName());
-            }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        // References to exactly the validated and priced outcomes, without reading
+        // them again; a leg deleted meanwhile fails the bet_outcomes insert
+        java.util.List<Outcome> outcomes = new java.util.ArrayList<>();
+        for (OutcomeSnapshotService.Entry entry : selection) {
+            outcomes.add(outcomeRepository.getReferenceById(entry.getId()));
         }
 
-        // Check for mutually exclusive or overlapping outcomes
-        for (int i = 0; i < outcomes.size(); i++) {
-            for (int j = i + 1; j < outcomes.size(); j++) {
-                Outcome o1 = outcomes.get(i);
-                Outcome o2 = outcomes.get(j);
+        Bet bet = new Bet();
+        bet.setUser(user);
+        bet.setOutcomes(outcomes);
+        bet.setAmount(amount);
+        bet.setStatus(Bet.BetStatus.PENDING);
+        bet.setPlacedAt(now);
+        bet.setPotentialPayout(potentialPayout(amount, selection));
+        bet.setPlacedOdds(placedOdds(selection));
+        Bet saved = betRepository.save(bet);
+
+        // SECURITY: Runs on the user's wallet lane, the only writer of this wallet,
+        // so two simultaneous bets can't both pass the balance check. The caller
+        // checks the balance before this; if it still fails, the bet row rolls back
+        if (!walletLedgerService.debit(userId, amount, WalletLedgerEntry.EntryType.BET_STAKE, saved.getId(), null)) {
+            throw new RuntimeException("Insufficient balance");
+        }
 
-                // Skip if different events
-                if (!o1.getEvent().getId().equals(o2.getEvent().getId())) {
-                    continue;
-                }
+        exposureService.addBets(java.util.List.of(saved.getId()));
+        cashOutService.trackPlaced(saved.getId(), userId, amount, selection);
+        return placedBet(saved, selection);
+    }
 
-                // Both outcomes are from the same event
-                String group1 = o1.getOutcomeGroup();
-                String group2 = o2.getOutcomeGroup();
+    // Response for a new bet, built from the snapshot: the legs are uninitialized references
+    private static com.furbitobet.backend.dto.BetHistoryDTO placedBet(Bet bet,
+            java.util.List<OutcomeSnapshotService.Entry> selection) {
+        com.furbitobet.backend.dto.BetHistoryDTO dto = new com.furbitobet.backend.dto.BetHistoryDTO(bet.getId(),
+                bet.getAmount(), bet.getWinnings(), bet.getPotentialPayout(), bet.getStatus(), bet.getPlacedAt());
+        for (OutcomeSnapshotService.Entry entry : selection) {
+            dto.getOutcomes().add(new com.furbitobet.backend.dto.BetHistoryDTO.OutcomeInfo(entry.getId(),
+                    entry.getDescription(), entry.getOdds(), Outcome.OutcomeStatus.PENDING, entry.getOutcomeGroup(),
+                    new com.furbitobet.backend.dto.BetHistoryDTO.EventInfo(entry.getEventId(), entry.getEventName(),
+                            entry.getKickoff(), entry.getEventStatus())));
+        }
+        return dto;
+    }
 
-                if (group1 == null || group2 == null) {
-                    continue;
-                }
+    @Autowired
+    private org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
 
-                // Extract base category and direction
-                String baseCategory1 = extractBaseCategory(group1);
-                String baseCategory2 = extractBaseCategory(group2);
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
 
-                // If different base categories, they're compatible
-                if (!baseCategory1.equals(baseCategory2)) {
-                    continue;
-                }
+    // Máximo de apuestas por boleto múltiple
+    private static final int MAX_SLIP_SIZE = 50;
 
-                // Allow combining multiple "Goleadores" or "Asistencias" (player-specific bets)
-                if (baseCategory1.equals("Goleadores") || baseCategory1.equals("Asistencias")) {
-                    continue;
-                }
+    /**
+     * Coloca varias apuestas del mismo usuario en una sola transacción. Todas
+     * se validan contra una única lectura de selecciones, el importe total se
+     * descuenta con un único cargo condicional y las filas se insertan con
+     * batching JDBC. Devuelve el resultado de cada apuesta por posición.
+     */
+    @Transactional
+    public java.util.List<com.furbitobet.backend.dto.BetSlipResultDTO> placeBets(Long userId,
+            java.util.List<java.util.List<Long>> outcomeIdLists, java.util.List<BigDecimal> amounts,
+            java.util.List<java.util.Map<Long, Long>> oddsVersions) {
+        if (userId == null)
+            throw new IllegalArgumentException("User ID cannot be null");
+        if (outcomeIdLists == null || amounts == null || outcomeIdLists.size() != amounts.size())
+            throw new IllegalArgumentException("Invalid bet slip");
+        if (outcomeIdLists.isEmpty() || outcomeIdLists.size() > MAX_SLIP_SIZE)
+            throw new IllegalArgumentException("A bet slip must contain between 1 and " + MAX_SLIP_SIZE + " bets");
+
+        // SECURITY: Runs on the user's wallet lane, so the balance read here stays
+        // valid until the stakes are recorded
+        BigDecimal available = walletLedgerService.getAvailable(userId);
+
+        // One outcome snapshot read for the whole slip
+        java.util.Set<Long> allOutcomeIds = new java.util.HashSet<>();
+        for (java.util.List<Long> ids : outcomeIdLists) {
+            if (ids != null) {
+                allOutcomeIds.addAll(ids);
+            }
+        }
+        java.util.Map<Long, OutcomeSnapshotService.Entry> snapshot = new java.util.HashMap<>();
+        for (OutcomeSnapshotService.Entry entry : outcomeSnapshotService.getAll(allOutcomeIds)) {
+            snapshot.put(entry.getId(), entry);
+        }
 
-                // Same base category - check if they overlap
-                String direction1 = extractDirection(group1);
-                String direction2 = extractDirection(group2);
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        com.furbitobet.backend.dto.BetSlipResultDTO[] results = new com.furbitobet.backend.dto.BetSlipResultDTO[amounts.size()];
+        java.util.List<Integer> accepted = new java.util.ArrayList<>();
+        java.util.Map<Integer, java.util.List<OutcomeSnapshotService.Entry>> selections = new java.util.HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
 
-                // If both are in the same direction (both "Más de" or both "Menos de"), they
-                // overlap
-                if (direction1.equals(direction2) && !direction1.isEmpty()) {
-                    throw new RuntimeException(
-                            "No se pueden combinar apuestas del mismo tipo y dirección para el mismo evento. " +
-                                    "Por ejemplo, no puedes apostar a 'Menos de 5.5' y 'Menos de 4.5' al mismo tiempo.");
+        for (int i = 0; i < amounts.size(); i++) {
+            BigDecimal amount = amounts.get(i);
+            try {
+                if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+                    throw new IllegalArgumentException("Bet amount must be positive");
                 }
-
-                // If both have no direction (like "Ganador del Partido"), they're mutually
-                // exclusive
-                if (direction1.isEmpty() && direction2.isEmpty()) {
-                    throw new RuntimeException(
-                            "No se pueden combinar dos apuestas del mismo tipo para el mismo evento.");
+                java.util.List<Long> ids = outcomeIdLists.get(i);
+                if (ids == null || ids.isEmpty()) {
+                    throw new RuntimeException("No outcomes selected");
+                }
+                java.util.List<OutcomeSnapshotService.Entry> outcomes = new java.util.ArrayList<>();
+                for (Long id : new java.util.LinkedHashSet<>(ids)) {
+                    OutcomeSnapshotService.Entry outcome = snapshot.get(id);
+                    if (outcome == null) {
+                        throw new RuntimeException("Outcome not found: " + id);
+                    }
+                    outcomes.add(outcome);
                 }
+                validateSelection(outcomes, now);
+                checkOddsVersions(outcomes, oddsVersions != null ? oddsVersions.get(i) : null);
 
-                // Different directions (one "Más de", one "Menos de") are allowed
+                // Accept in slip order while the balance read above covers the running total
+                if (total.add(amount).compareTo(available) > 0) {
+                    throw new RuntimeException("Insufficient balance");
+                }
+                total = total.add(amount);
+                accepted.add(i);
+                selections.put(i, outcomes);
+            } catch (RuntimeException e) {
+                results[i] = com.furbitobet.backend.dto.BetSlipResultDTO.failed(i, amount, e.getMessage());
             }
         }
 
-        if (user.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance");
+        // The snapshot is per instance: confirm the prices with the database before debiting
+        java.util.List<OutcomeSnapshotService.Entry> chosen = new java.util.ArrayList<>();
+        for (Integer i : accepted) {
+            chosen.addAll(selections.get(i));
+        }
+        java.util.Set<Long> stale = outcomeSnapshotService.findStale(chosen);
+        if (!stale.isEmpty()) {
+            accepted.removeIf(i -> {
+                for (OutcomeSnapshotService.Entry outcome : selections.get(i)) {
+                    if (stale.contains(outcome.getId())) {
+                        results[i] = com.furbitobet.backend.dto.BetSlipResultDTO.failed(i, amounts.get(i),
+                                "Odds have changed for outcome " + outcome.getId() + ", please review your bet");
+                        return true;
+                    }
+                }
+                return false;
+            });
         }
 
-        user.setBalance(user.getBalance().subtract(amount));
-        userRepository.save(user);
+        if (!accepted.isEmpty()) {
+            java.util.List<Long> betIds = insertBets(userId, accepted, amounts, selections, now);
+            java.util.List<WalletLedgerEntry> stakes = new java.util.ArrayList<>();
+            for (int k = 0; k < accepted.size(); k++) {
+                int i = accepted.get(k);
+                results[i] = new com.furbitobet.backend.dto.BetSlipResultDTO(i, true, betIds.get(k), amounts.get(i),
+                        null);
+                stakes.add(WalletLedgerService.entry(userId, amounts.get(i).negate(),
+                        WalletLedgerEntry.EntryType.BET_STAKE, betIds.get(k), null));
+                cashOutService.trackPlaced(betIds.get(k), userId, amounts.get(i), selections.get(i));
+            }
+            // One ledger row per stake, in one JDBC batch
+            walletLedgerService.record(stakes);
+            exposureService.addBets(betIds);
+        }
 
-        Bet bet = new Bet();
-        bet.setUser(user);
-        bet.setOutcomes(outcomes);
-        bet.setAmount(amount);
-        bet.setStatus(Bet.BetStatus.PENDING);
-        bet.setPlacedAt(now);
-        return betRepository.save(bet);
+        return java.util.Arrays.asList(results);
     }
 
     /**
-     * Extracts the base category from an outcomeGroup string.
-     * For example:
-     * - "Goles - Furbito FIC - Más de" -> "Goles - Furbito FIC"
-     * - "Goles - ECONÓMICAS-5 - Menos de" -> "Goles - ECONÓMICAS-5"
-     * - "Ganador del Partido" -> "Ganador del Partido"
-     * - "Ambos Marcan" -> "Ambos Marcan"
+     * Inserta las apuestas y sus filas de bet_outcomes con batching JDBC. Con
+     * ids IDENTITY Hibernate no agrupa los INSERT, así que se usa JdbcTemplate
+     * directamente sobre la conexión de la transacción.
      */
-    private String extractBaseCategory(String outcomeGroup) {
-        if (outcomeGroup == null) {
-            return "";
+    private java.util.List<Long> insertBets(Long userId, java.util.List<Integer> accepted,
+            java.util.List<BigDecimal> amounts,
+            java.util.Map<Integer, java.util.List<OutcomeSnapshotService.Entry>> selections,
+            java.time.LocalDateTime now) {
+        org.springframework.jdbc.support.GeneratedKeyHolder keys = new org.springframework.jdbc.support.GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(
+                        "INSERT INTO bets (user_id, amount, status, placed_at, potential_payout) VALUES (?, ?, ?, ?, ?)",
+                        new String[] { "id" }),
+                new org.springframework.jdbc.core.BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(java.sql.PreparedStatement ps, int k) throws java.sql.SQLException {
+                        int i = accepted.get(k);
+                        ps.setLong(1, userId);
+                        ps.setBigDecimal(2, amounts.get(i));
+                        ps.setString(3, Bet.BetStatus.PENDING.name());
+                        ps.setObject(4, now);
+                        ps.setBigDecimal(5, potentialPayout(amounts.get(i), selections.get(i)));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accepted.size();
+                    }
+                },
+                keys);
+
+        java.util.List<Long> betIds = new java.util.ArrayList<>();
+        java.util.List<Object[]> links = new java.util.ArrayList<>();
+        java.util.List<Object[]> odds = new java.util.ArrayList<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            Long betId = ((Number) keys.getKeyList().get(k).get("id")).longValue();
+            betIds.add(betId);
+            for (OutcomeSnapshotService.Entry outcome : selections.get(accepted.get(k))) {
+                links.add(new Object[] { betId, outcome.getId() });
+                odds.add(new Object[] { betId, outcome.getId(), outcome.getOdds() });
+            }
         }
+        jdbcTemplate.batchUpdate("INSERT INTO bet_outcomes (bet_id, outcome_id) VALUES (?, ?)", links);
+        jdbcTemplate.batchUpdate("INSERT INTO bet_placed_odds (bet_id, outcome_id, odds) VALUES (?, ?, ?)", odds);
+        return betIds;
+    }
 
-        // Remove common directional indicators
-        String base = outcomeGroup
-                .replaceAll(" - Más de$", "")
-                .replaceAll(" - Menos de$", "")
-                .replaceAll(" - Over$", "")
-                .replaceAll(" - Under$", "")
-                .trim();
+    private static java.util.Map<Long, BigDecimal> placedOdds(
+            java.util.List<OutcomeSnapshotService.Entry> selection) {
+        java.util.Map<Long, BigDecimal> odds = new java.util.HashMap<>();
+        for (OutcomeSnapshotService.Entry outcome : selection) {
+            odds.put(outcome.getId(), outcome.getOdds());
+        }
+        return odds;
+    }
 
-        return base;
+    private static BigDecimal potentialPayout(BigDecimal amount,
+            java.util.List<OutcomeSnapshotService.Entry> selection) {
+        BigDecimal totalOdds = BigDecimal.ONE;
+        for (OutcomeSnapshotService.Entry outcome : selection) {
+            totalOdds = totalOdds.multiply(outcome.getOdds());
+        }
+        return amount.multiply(totalOdds);
     }
 
     /**
-     * Extracts the direction from an outcomeGroup string.
-     * Returns "MAS" for "Más de", "MENOS" for "Menos de", or "" for no direction.
+     * Checks that the outcomes of one bet can be combined and are still open:
+     * no completed, cancelled or started events and no overlapping markets.
      */
-    private String extractDirection(String outcomeGroup) {
-        if (outcomeGroup == null) {
-            return "";
+    private void validateSelection(java.util.List<OutcomeSnapshotService.Entry> outcomes,
+            java.time.LocalDateTime now) {
+        // Check if any event is completed, cancelled, or ALREADY STARTED
+        for (OutcomeSnapshotService.Entry outcome : outcomes) {
+            if (outcome.getEventStatus() == com.furbitobet.backend.model.Event.EventStatus.COMPLETED ||
+                    outcome.getEventStatus() == com.furbitobet.backend.model.Event.EventStatus.CANCELLED) {
+                throw new RuntimeException(
+                        "Cannot place bet on completed or cancelled event: " + outcome.getEventName());
+            }
+            if (outcome.getKickoff().isBefore(now)) {
+                throw new RuntimeException(
+                        "Cannot place bet on started event: " + outcome.getEventName());
+            }
         }
 
-        if (outcomeGroup.contains(" - Más de") || outcomeGroup.contains(" - Over")) {
-            return "MAS";
-        }
-        if (outcomeGroup.contains(" - Menos de") || outcomeGroup.contains(" - Under")) {
-            return "MENOS";
+        // Check for mutually exclusive or overlapping outcomes: group the selection by
+        // (event, market) and reject any repeated direction within a group
+        java.util.Map<String, java.util.EnumSet<Outcome.MarketDirection>> seen = new java.util.HashMap<>();
+        for (OutcomeSnapshotService.Entry outcome : outcomes) {
+            String marketKey = outcome.getMarketKey();
+
+            // Allow combining multiple "Goleadores" or "Asistencias" (player-specific bets)
+            if (marketKey == null
+                    || com.furbitobet.backend.service.market.OutcomeMetadata.isStackable(marketKey)) {
+                continue;
+            }
+
+            java.util.EnumSet<Outcome.MarketDirection> directions = seen.computeIfAbsent(
+                    outcome.getEventId() + "|" + marketKey,
+                    k -> java.util.EnumSet.noneOf(Outcome.MarketDirection.class));
+
+            if (!directions.add(outcome.getDirection())) {
+                // If both have no direction (like "Ganador del Partido"), they're mutually
+                // exclusive
+                if (outcome.getDirection() == Outcome.MarketDirection.NONE) {
+                    throw new RuntimeException(
+                            "No se pueden combinar dos apuestas del mismo tipo para el mismo evento.");
+                }
+                // Same direction (both "Más de" or both "Menos de") overlaps; different
+                // directions are allowed
+                throw new RuntimeException(
+                        "No se pueden combinar apuestas del mismo tipo y dirección para el mismo evento. " +
+                                "Por ejemplo, no puedes apostar a 'Menos de 5.5' y 'Menos de 4.5' al mismo tiempo.");
+            }
         }
+    }
 
-        return "";
+    /**
+     * Rejects the bet if the client priced it with an odds version that is no
+     * longer current. Outcomes the client sent no version for are not checked.
+     */
+    private void checkOddsVersions(java.util.List<OutcomeSnapshotService.Entry> outcomes,
+            java.util.Map<Long, Long> oddsVersions) {
+        if (oddsVersions == null || oddsVersions.isEmpty()) {
+            return;
+        }
+        for (OutcomeSnapshotService.Entry outcome : outcomes) {
+            Long expected = oddsVersions.get(outcome.getId());
+            if (expected != null && expected != outcome.getOddsVersion()) {
+                throw new RuntimeException("Odds have changed for outcome " + outcome.getId()
+                        + ": current odds " + outcome.getOdds() + " (version " + outcome.getOddsVersion() + ")");
+            }
+        }
     }
 
     public java.util.List<Bet> getBetsByUserId(Long userId) {
@@ -183,6 +379,72 @@ public class BetService {
         return betRepository.findByUserId(userId);
     }
 
+    // Tamaño de página por defecto y máximo del historial
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    /**
+     * Página del historial de apuestas del usuario, de la más reciente a la más
+     * antigua. before es el cursor "placedAt,id" de la última apuesta de la
+     * página anterior (o solo una fecha, para empezar desde ella) y from el
+     * límite inferior de placedAt. Primero se buscan los ids de la página
+     * sobre el índice (user_id, placed_at, id) y después sus filas con una
+     * consulta de proyección, sin cargar entidades.
+     */
+    public com.furbitobet.backend.dto.BetHistoryPageDTO getBetHistoryPage(Long userId,
+            java.util.Collection<Bet.BetStatus> statuses, java.time.LocalDateTime from, String before,
+            Integer limit) {
+        if (userId == null)
+            throw new IllegalArgumentException("User ID cannot be null");
+        int size = limit == null ? DEFAULT_HISTORY_PAGE_SIZE
+                : Math.min(Math.max(limit, 1), MAX_HISTORY_PAGE_SIZE);
+
+        // A bare date as cursor: every bet placed before it
+        KeysetCursor cursor = KeysetCursor.parse(before, true);
+
+        // One extra id tells whether there is a next page
+        java.util.List<Long> ids = betRepository.findHistoryPageIds(userId,
+                statuses == null || statuses.isEmpty() ? java.util.EnumSet.allOf(Bet.BetStatus.class) : statuses,
+                from != null ? from : KeysetCursor.MIN_DATE, cursor.getDate(), cursor.getId(),
+                org.springframework.data.domain.PageRequest.of(0, size + 1));
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        if (ids.isEmpty()) {
+            return new com.furbitobet.backend.dto.BetHistoryPageDTO(new java.util.ArrayList<>(), null);
+        }
+
+        java.util.List<com.furbitobet.backend.dto.BetHistoryDTO> bets = toHistory(
+                betRepository.findHistoryByIdIn(ids));
+        String nextCursor = null;
+        if (hasNext) {
+            com.furbitobet.backend.dto.BetHistoryDTO last = bets.get(bets.size() - 1);
+            nextCursor = KeysetCursor.of(last.getPlacedAt(), last.getId());
+        }
+        return new com.furbitobet.backend.dto.BetHistoryPageDTO(bets, nextCursor);
+    }
+
+    // Groups the flat (bet, outcome) rows into one DTO per bet, keeping row order
+    private static java.util.List<com.furbitobet.backend.dto.BetHistoryDTO> toHistory(
+            java.util.List<com.furbitobet.backend.repository.BetHistoryView> rows) {
+        java.util.Map<Long, com.furbitobet.backend.dto.BetHistoryDTO> bets = new java.util.LinkedHashMap<>();
+        for (com.furbitobet.backend.repository.BetHistoryView row : rows) {
+            com.furbitobet.backend.dto.BetHistoryDTO bet = bets.computeIfAbsent(row.getBetId(),
+                    id -> new com.furbitobet.backend.dto.BetHistoryDTO(id, row.getAmount(), row.getWinnings(),
+                            row.getPotentialPayout(), row.getStatus(), row.getPlacedAt()));
+            if (row.getOutcomeId() != null) {
+                com.furbitobet.backend.dto.BetHistoryDTO.EventInfo event = row.getEventId() == null ? null
+                        : new com.furbitobet.backend.dto.BetHistoryDTO.EventInfo(row.getEventId(),
+                                row.getEventName(), row.getEventDate(), row.getEventStatus());
+                bet.getOutcomes().add(new com.furbitobet.backend.dto.BetHistoryDTO.OutcomeInfo(row.getOutcomeId(),
+                        row.getOutcomeDescription(), row.getOdds(), row.getOutcomeStatus(), row.getOutcomeGroup(),
+                        event));
+            }
+        }
+        return new java.util.ArrayList<>(bets.values());
+    }
+
     @Transactional
     public void cancelBet(Long betId, Long userId) {
         Bet bet = betRepository.findById(betId).orElseThrow(() -> new RuntimeException("Bet not found"));
@@ -210,102 +472,289 @@ public class BetService {
             throw new RuntimeException("Too late to cancel (event started)");
         }
 
-        User user = bet.getUser();
-        user.setBalance(user.getBalance().add(bet.getAmount()));
-        userRepository.save(user);
-
         bet.setStatus(Bet.BetStatus.CANCELLED);
         betRepository.save(bet);
+
+        walletLedgerService.credit(userId, bet.getAmount(), WalletLedgerEntry.EntryType.BET_CANCEL_REFUND, betId,
+                null);
+
+        exposureService.removeBets(java.util.List.of(betId));
+        cashOutService.untrack(java.util.List.of(betId));
+        liveUpdateService.publishBet(userId, betId, Bet.BetStatus.CANCELLED, null);
     }
 
     @Autowired
-    private EmailService emailService;
+    private CashOutService cashOutService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
 
+    /**
+     * Cobra anticipadamente una apuesta pendiente por la oferta actual del
+     * motor de cash-out. Si se indica expectedAmount y la oferta ha cambiado,
+     * se rechaza para que el usuario no acepte un importe que no ha visto.
+     */
     @Transactional
-    public void settleBets(com.furbitobet.backend.model.Event event) {
-        java.util.List<Bet> pendingBets = betRepository.findByStatus(Bet.BetStatus.PENDING);
-
-        for (Bet bet : pendingBets) {
-            boolean allResolved = true;
-            boolean anyLost = false;
-            BigDecimal totalOdds = BigDecimal.ONE;
-            boolean anyVoid = false;
-
-            for (Outcome outcome : bet.getOutcomes()) {
-                if (outcome.getStatus() == Outcome.OutcomeStatus.PENDING) {
-                    allResolved = false;
-                    // Don't break, we need to check if any other outcome is LOST
-                }
-                if (outcome.getStatus() == Outcome.OutcomeStatus.LOST) {
-                    anyLost = true;
-                }
-                if (outcome.getStatus() == Outcome.OutcomeStatus.WON) {
-                    totalOdds = totalOdds.multiply(outcome.getOdds());
-                }
-                if (outcome.getStatus() == Outcome.OutcomeStatus.VOID) {
-                    anyVoid = true;
-                }
-            }
+    public com.furbitobet.backend.dto.CashOutQuoteDTO cashOut(Long betId, Long userId, BigDecimal expectedAmount) {
+        com.furbitobet.backend.dto.CashOutQuoteDTO quote = cashOutService.getQuote(betId);
+        if (quote == null) {
+            throw new RuntimeException("Cash-out is not available for this bet");
+        }
+        if (!userId.equals(cashOutService.getOwner(betId))) {
+            throw new RuntimeException("Unauthorized");
+        }
+        if (!quote.isAvailable()) {
+            throw new RuntimeException(quote.getReason());
+        }
+        if (expectedAmount != null && expectedAmount.compareTo(quote.getAmount()) != 0) {
+            throw new RuntimeException("Cash-out offer has changed: current offer " + quote.getAmount());
+        }
 
-            // If any outcome is lost, the bet is lost, regardless of other pending outcomes
-            if (!anyLost && !allResolved) {
-                continue;
+        // Conditional update: loses cleanly against a settlement or cancel that got there first
+        if (betRepository.markCashedOut(betId, quote.getAmount()) == 0) {
+            throw new RuntimeException("Bet is no longer pending");
+        }
+        walletLedgerService.credit(userId, quote.getAmount(), WalletLedgerEntry.EntryType.CASH_OUT, betId, null);
+
+        exposureService.removeBets(java.util.List.of(betId));
+        cashOutService.untrack(java.util.List.of(betId));
+        liveUpdateService.publishBet(userId, betId, Bet.BetStatus.CASHED_OUT, quote.getAmount());
+        return quote;
+    }
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    // Un único email resumen por usuario y liquidación en lugar de uno por apuesta
+    @org.springframework.beans.factory.annotation.Value("${settlement.email.digest:true}")
+    private boolean digestEmailsEnabled;
+
+    /**
+     * Liquidación por SQL de conjuntos: las apuestas pendientes del evento con
+     * alguna selección PERDIDA se marcan con un único UPDATE. No mueve saldo,
+     * así que no pasa por los carriles de monedero; las ganadoras y anuladas
+     * las liquida después SettlementEngine usuario a usuario.
+     *
+     * @return número de apuestas perdidas
+     */
+    @Transactional
+    public int settleLostBets(Long eventId) {
+        java.util.Map<Long, SettlementNotice> notices = new java.util.LinkedHashMap<>();
+
+        // Read only what the notification needs, then one UPDATE
+        java.util.List<Object[]> lostBets = betRepository.findPendingLostBetRowsByEventId(eventId);
+        betRepository.markPendingLostBetsByEventId(eventId);
+
+        for (Object[] row : lostBets) {
+            notice(notices, ((Number) row[3]).longValue(), (String) row[1], (String) row[2])
+                    .add(((Number) row[0]).longValue(), Bet.BetStatus.LOST, BigDecimal.ZERO);
+        }
+
+        exposureService.removeBets(settledBetIds(notices));
+        cashOutService.untrack(settledBetIds(notices));
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
+        publishSettlements(notices);
+        sendSettlementEmails(notices);
+        return lostBets.size();
+    }
+
+    /**
+     * Marca como WON o VOID una apuesta sin selecciones perdidas cuyas
+     * selecciones están todas resueltas. No toca el saldo del usuario.
+     *
+     * @return true si la apuesta ha quedado liquidada con pago
+     */
+    private boolean resolvePayout(Bet bet) {
+        BigDecimal totalOdds = BigDecimal.ONE;
+        boolean allVoid = true;
+
+        for (Outcome outcome : bet.getOutcomes()) {
+            if (outcome.getStatus() == Outcome.OutcomeStatus.PENDING
+                    || outcome.getStatus() == Outcome.OutcomeStatus.LOST) {
+                return false;
+            }
+            if (outcome.getStatus() == Outcome.OutcomeStatus.WON) {
+                totalOdds = totalOdds.multiply(bet.oddsFor(outcome));
+                allVoid = false;
             }
+        }
+
+        if (allVoid) {
+            bet.setStatus(Bet.BetStatus.VOID);
+            bet.setWinnings(bet.getAmount());
+        } else {
+            bet.setStatus(Bet.BetStatus.WON);
+            bet.setWinnings(bet.getAmount().multiply(totalOdds));
+        }
+        betRepository.save(bet);
+        return true;
+    }
 
-            String subject = "Resultado de tu apuesta #" + bet.getId();
-            String body = "";
+    /**
+     * Liquida las apuestas pendientes de un único usuario. SettlementEngine la
+     * ejecuta en el carril de monedero del usuario, así que los abonos se
+     * registran en serie con sus apuestas y cash-outs, y usuarios distintos se
+     * liquidan en paralelo.
+     *
+     * @return número de apuestas liquidadas
+     */
+    @Transactional
+    public int settleUserPartition(Long userId, java.util.List<Long> betIds) {
+        java.util.Map<Long, SettlementNotice> notices = new java.util.LinkedHashMap<>();
+        java.util.List<Long> paidIds = new java.util.ArrayList<>();
 
-            if (anyLost) {
+        for (Bet bet : betRepository.findAllWithOutcomesByIdIn(betIds)) {
+            if (bet.getStatus() != Bet.BetStatus.PENDING || !bet.getUser().getId().equals(userId)) {
+                continue;
+            }
+            if (bet.getOutcomes().stream().anyMatch(o -> o.getStatus() == Outcome.OutcomeStatus.LOST)) {
                 bet.setStatus(Bet.BetStatus.LOST);
                 bet.setWinnings(BigDecimal.ZERO);
-                body = "Hola " + bet.getUser().getUsername() + ",\n\n" +
-                        "Tu apuesta #" + bet.getId() + " ha sido resuelta como PERDIDA.\n" +
-                        "Más suerte la próxima vez.\n\n" +
-                        "FurbitoBET";
-
+                betRepository.save(bet);
+            } else if (resolvePayout(bet)) {
+                paidIds.add(bet.getId());
             } else {
-                // All won or void
-                if (anyVoid && totalOdds.compareTo(BigDecimal.ONE) == 0
-                        && bet.getOutcomes().stream().allMatch(o -> o.getStatus() == Outcome.OutcomeStatus.VOID)) {
-                    // All outcomes are VOID -> Refund
-                    bet.setStatus(Bet.BetStatus.VOID);
-                    bet.setWinnings(bet.getAmount());
-                    User user = bet.getUser();
-                    user.setBalance(user.getBalance().add(bet.getAmount()));
-                    userRepository.save(user);
-
-                    body = "Hola " + bet.getUser().getUsername() + ",\n\n" +
-                            "Tu apuesta #" + bet.getId() + " ha sido ANULADA.\n" +
-                            "Se te ha devuelto el importe de " + String.format("%.2f", bet.getAmount()) + "€.\n\n" +
-                            "FurbitoBET";
-
-                } else {
-                    bet.setStatus(Bet.BetStatus.WON);
-                    BigDecimal winnings = bet.getAmount().multiply(totalOdds);
-                    bet.setWinnings(winnings);
-                    User user = bet.getUser();
-                    user.setBalance(user.getBalance().add(winnings));
-                    userRepository.save(user);
-
-                    body = "Hola " + bet.getUser().getUsername() + ",\n\n" +
-                            "¡Felicidades! Tu apuesta #" + bet.getId() + " ha sido GANADORA.\n" +
-                            "Has ganado " + String.format("%.2f", winnings) + "€.\n" +
-                            "Tu nuevo saldo es: " + String.format("%.2f", user.getBalance()) + "€.\n\n" +
-                            "FurbitoBET";
+                continue;
+            }
+
+            User user = bet.getUser();
+            notice(notices, user.getId(), user.getUsername(), user.getEmail())
+                    .add(bet.getId(), bet.getStatus(), bet.getWinnings());
+        }
+
+        walletLedgerService.creditWinnings(paidIds);
+
+        exposureService.removeBets(settledBetIds(notices));
+        cashOutService.untrack(settledBetIds(notices));
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
+        publishSettlements(notices);
+        sendSettlementEmails(notices);
+        return notices.isEmpty() ? 0 : notices.get(userId).betIds.size();
+    }
+
+    private java.util.List<Long> settledBetIds(java.util.Map<Long, SettlementNotice> notices) {
+        java.util.List<Long> betIds = new java.util.ArrayList<>();
+        for (SettlementNotice notice : notices.values()) {
+            betIds.addAll(notice.betIds);
+        }
+        return betIds;
+    }
+
+    private void publishSettlements(java.util.Map<Long, SettlementNotice> notices) {
+        for (java.util.Map.Entry<Long, SettlementNotice> entry : notices.entrySet()) {
+            SettlementNotice notice = entry.getValue();
+            for (int i = 0; i < notice.betIds.size(); i++) {
+                liveUpdateService.publishBet(entry.getKey(), notice.betIds.get(i), notice.statuses.get(i),
+                        notice.amounts.get(i));
+            }
+        }
+    }
+
+    private SettlementNotice notice(java.util.Map<Long, SettlementNotice> notices, Long userId, String username,
+            String email) {
+        return notices.computeIfAbsent(userId, id -> new SettlementNotice(username, email));
+    }
+
+    /**
+     * Encola los emails de resultado de una liquidación. En modo resumen cada
+     * usuario recibe un único email con una línea por apuesta y su saldo final;
+     * si no, se envía un email por apuesta como antes.
+     */
+    private void sendSettlementEmails(java.util.Map<Long, SettlementNotice> notices) {
+        if (notices.isEmpty()) {
+            return;
+        }
+
+        // Final balances after this settlement, read once for all notified users
+        java.util.Map<Long, BigDecimal> balances = new java.util.HashMap<>();
+        for (User user : userRepository.findAllById(notices.keySet())) {
+            balances.put(user.getId(), user.getBalance());
+        }
+
+        for (java.util.Map.Entry<Long, SettlementNotice> entry : notices.entrySet()) {
+            SettlementNotice notice = entry.getValue();
+            BigDecimal balance = balances.get(entry.getKey());
+
+            if (digestEmailsEnabled && notice.betIds.size() > 1) {
+                emailOutboxService.enqueue(notice.email,
+                        "Resultado de tus apuestas (" + notice.betIds.size() + ")",
+                        buildDigestBody(notice, balance));
+                continue;
+            }
 
+            for (int i = 0; i < notice.betIds.size(); i++) {
+                Long betId = notice.betIds.get(i);
+                String body;
+                switch (notice.statuses.get(i)) {
+                    case LOST:
+                        body = buildLostBody(notice.username, betId);
+                        break;
+                    case VOID:
+                        body = buildVoidBody(notice.username, betId, notice.amounts.get(i));
+                        break;
+                    default:
+                        body = buildWonBody(notice.username, betId, notice.amounts.get(i), balance);
                 }
+                // Written to the outbox in this transaction; EmailOutboxDispatcher sends it after commit
+                emailOutboxService.enqueue(notice.email, "Resultado de tu apuesta #" + betId, body);
             }
-            betRepository.save(bet);
+        }
+    }
 
-            // Send email asynchronously or safely catch errors to not rollback transaction
-            try {
-                emailService.sendSimpleMessage(bet.getUser().getEmail(), subject, body);
-            } catch (Exception e) {
-                System.err.println("Error sending email for bet " + bet.getId() + ": " + e.getMessage());
+    private String buildDigestBody(SettlementNotice notice, BigDecimal balance) {
+        StringBuilder body = new StringBuilder();
+        body.append("Hola ").append(notice.username).append(",\n\n")
+                .append("Se han resuelto ").append(notice.betIds.size()).append(" de tus apuestas:\n\n");
+
+        for (int i = 0; i < notice.betIds.size(); i++) {
+            body.append("- Apuesta #").append(notice.betIds.get(i)).append(": ");
+            switch (notice.statuses.get(i)) {
+                case LOST:
+                    body.append("PERDIDA");
+                    break;
+                case VOID:
+                    body.append("ANULADA (devolución de ").append(String.format("%.2f", notice.amounts.get(i)))
+                            .append("€)");
+                    break;
+                default:
+                    body.append("GANADORA (+").append(String.format("%.2f", notice.amounts.get(i))).append("€)");
             }
+            body.append("\n");
         }
+
+        if (balance != null) {
+            body.append("\nTu nuevo saldo es: ").append(String.format("%.2f", balance)).append("€.\n");
+        }
+        body.append("\nFurbitoBET");
+        return body.toString();
+    }
+
+    private String buildLostBody(String username, Long betId) {
+        return "Hola " + username + ",\n\n" +
+                "Tu apuesta #" + betId + " ha sido resuelta como PERDIDA.\n" +
+                "Más suerte la próxima vez.\n\n" +
+                "FurbitoBET";
+    }
+
+    private String buildVoidBody(String username, Long betId, BigDecimal amount) {
+        return "Hola " + username + ",\n\n" +
+                "Tu apuesta #" + betId + " ha sido ANULADA.\n" +
+                "Se te ha devuelto el importe de " + String.format("%.2f", amount) + "€.\n\n" +
+                "FurbitoBET";
     }
 
+    private String buildWonBody(String username, Long betId, BigDecimal winnings, BigDecimal newBalance) {
+        return "Hola " + username + ",\n\n" +
+                "¡Felicidades! Tu apuesta #" + betId + " ha sido GANADORA.\n" +
+                "Has ganado " + String.format("%.2f", winnings) + "€.\n" +
+                "Tu nuevo saldo es: " + String.format("%.2f", newBalance) + "€.\n\n" +
+                "FurbitoBET";
+    }
+
+    @Transactional
     public java.util.List<com.furbitobet.backend.dto.EventResultDTO> getEventResults(Long eventId) {
         java.util.List<Bet> bets = betRepository.findDistinctByOutcomes_Event_Id(eventId);
 
@@ -331,7 +780,7 @@ public class BetService {
                     BigDecimal totalOdds = BigDecimal.ONE;
                     for (Outcome outcome : bet.getOutcomes()) {
                         if (outcome.getStatus() == Outcome.OutcomeStatus.WON) {
-                            totalOdds = totalOdds.multiply(outcome.getOdds());
+                            totalOdds = totalOdds.multiply(bet.oddsFor(outcome));
                         }
                     }
                     winnings = bet.getAmount().multiply(totalOdds);
@@ -341,12 +790,12 @@ public class BetService {
                 // Calculate potential winnings for display
                 BigDecimal potentialOdds = BigDecimal.ONE;
                 for (Outcome outcome : bet.getOutcomes()) {
-                    potentialOdds = potentialOdds.multiply(outcome.getOdds());
+                    potentialOdds = potentialOdds.multiply(bet.oddsFor(outcome));
                 }
                 BigDecimal potentialWinnings = bet.getAmount().multiply(potentialOdds);
 
                 java.util.List<String> outcomeDescriptions = bet.getOutcomes().stream()
-                        .map(o -> o.getEvent().getName() + ": " + o.getDescription() + " (@" + o.getOdds() + ")")
+                        .map(o -> o.getEvent().getName() + ": " + o.getDescription() + " (@" + bet.oddsFor(o) + ")")
                         .collect(java.util.stream.Collectors.toList());
 
                 betSummaries.add(new com.furbitobet.backend.dto.BetSummaryDTO(
@@ -378,4 +827,27 @@ public class BetService {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
+
+    /**
+     * Apuestas liquidadas de un usuario en una misma liquidación, para
+     * notificarlas juntas.
+     */
+    private static class SettlementNotice {
+        private final String username;
+        private final String email;
+        private final java.util.List<Long> betIds = new java.util.ArrayList<>();
+        private final java.util.List<Bet.BetStatus> statuses = new java.util.ArrayList<>();
+        private final java.util.List<BigDecimal> amounts = new java.util.ArrayList<>();
+
+        SettlementNotice(String username, String email) {
+            this.username = username;
+            this.email = email;
+        }
+
+        void add(Long betId, Bet.BetStatus status, BigDecimal amount) {
+            betIds.add(betId);
+            statuses.add(status);
+            amounts.add(amount);
+        }
+    }
 }
@@ -0,0 +1,313 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.dto.CashOutQuoteDTO;
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.repository.BetRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de cash-out. Mantiene en memoria, para cada apuesta PENDING, la
+ * cuota con que se colocó cada selección y la cuota actual de las que siguen
+ * abiertas. Se actualiza de forma incremental:
+ * al colocar o cerrar apuestas, al resolverse selecciones y, a través de
+ * OutcomeSnapshotService, cuando cambia una cuota o una hora de inicio. Leer
+ * una oferta no toca la base de datos.
+ *
+ * La oferta es el pago proyectado (importe x cuotas de colocación de las
+ * selecciones no anuladas) por la probabilidad implícita actual de acertar el
+ * resto (1 / cuotas actuales de las abiertas), multiplicado por
+ * cashout.factor: si la cuota de una selección abierta baja respecto a la de
+ * colocación, la oferta sube, y al revés. Solo se ofrece mientras ningún
+ * evento con selecciones abiertas haya empezado, porque las cuotas no se
+ * actualizan en directo.
+ */
+@Service
+public class CashOutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashOutService.class);
+
+    private static final int LOAD_BATCH_SIZE = 200;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
+
+    @Value("${cashout.factor:0.95}")
+    private BigDecimal cashOutFactor;
+
+    private final Map<Long, Tracked> bets = new ConcurrentHashMap<>();
+
+    // outcome id -> ids of tracked bets with that outcome
+    private final Map<Long, Set<Long>> betsByOutcome = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerListener() {
+        outcomeSnapshotService.addListener(this::onOutcomeChanged);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<Long> ids = betRepository.findIdsByStatus(Bet.BetStatus.PENDING);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            load(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())));
+        }
+        logger.info("Cash-out engine tracking {} pending bets", bets.size());
+    }
+
+    /**
+     * Oferta actual de una apuesta, o null si no está pendiente.
+     */
+    public CashOutQuoteDTO getQuote(Long betId) {
+        Tracked tracked = bets.get(betId);
+        return tracked != null ? tracked.quote(LocalDateTime.now()) : null;
+    }
+
+    public Long getOwner(Long betId) {
+        Tracked tracked = bets.get(betId);
+        return tracked != null ? tracked.userId : null;
+    }
+
+    /**
+     * Apuesta recién colocada: sus selecciones vienen de la instantánea, así
+     * que no hace falta leerla de la base de datos.
+     */
+    public void trackPlaced(Long betId, Long userId, BigDecimal amount, List<OutcomeSnapshotService.Entry> legs) {
+        Tracked tracked = new Tracked(betId, userId, amount);
+        for (OutcomeSnapshotService.Entry leg : legs) {
+            tracked.legs.put(leg.getId(),
+                    new Leg(leg.getOdds(), leg.getOdds(), Outcome.OutcomeStatus.PENDING, leg.getKickoff()));
+        }
+        AfterCommit.run(() -> put(tracked));
+    }
+
+    /**
+     * Apuestas que vuelven a estar pendientes (p.ej. tras corregir una selección).
+     */
+    public void track(Collection<Long> betIds) {
+        if (!betIds.isEmpty()) {
+            List<Long> ids = new ArrayList<>(betIds);
+            AfterCommit.run(() -> load(ids));
+        }
+    }
+
+    /**
+     * Apuestas que dejan de estar pendientes (canceladas, liquidadas, cobradas).
+     */
+    public void untrack(Collection<Long> betIds) {
+        if (!betIds.isEmpty()) {
+            List<Long> ids = new ArrayList<>(betIds);
+            AfterCommit.run(() -> ids.forEach(this::remove));
+        }
+    }
+
+    /**
+     * Selecciones resueltas: actualiza las apuestas que las contienen y deja de
+     * seguir las que ya no pueden cobrarse (alguna perdida o ninguna abierta).
+     */
+    public void onOutcomesSettled(Map<Long, Outcome.OutcomeStatus> statuses) {
+        Map<Long, Outcome.OutcomeStatus> copy = new HashMap<>(statuses);
+        AfterCommit.run(() -> {
+            for (Map.Entry<Long, Outcome.OutcomeStatus> entry : copy.entrySet()) {
+                for (Long betId : betsFor(entry.getKey())) {
+                    Tracked tracked = bets.get(betId);
+                    if (tracked != null && !tracked.updateLeg(entry.getKey(), entry.getValue(), null, null)) {
+                        remove(betId);
+                    }
+                }
+            }
+        });
+    }
+
+    private void onOutcomeChanged(OutcomeSnapshotService.Entry outcome) {
+        for (Long betId : betsFor(outcome.getId())) {
+            Tracked tracked = bets.get(betId);
+            if (tracked != null) {
+                tracked.updateLeg(outcome.getId(), null, outcome.getOdds(), outcome.getKickoff());
+            }
+        }
+    }
+
+    private void load(List<Long> betIds) {
+        // bet id -> outcome id -> odds when the bet was placed
+        Map<Long, Map<Long, BigDecimal>> placedOdds = new HashMap<>();
+        for (Object[] row : betRepository.findPlacedOddsByIdIn(betIds)) {
+            placedOdds.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((Long) row[1], (BigDecimal) row[2]);
+        }
+        for (Bet bet : betRepository.findAllWithOutcomesByIdIn(betIds)) {
+            if (bet.getStatus() != Bet.BetStatus.PENDING) {
+                continue;
+            }
+            Map<Long, BigDecimal> placed = placedOdds.getOrDefault(bet.getId(), Map.of());
+            Tracked tracked = new Tracked(bet.getId(), bet.getUser().getId(), bet.getAmount());
+            for (Outcome outcome : bet.getOutcomes()) {
+                // Bets placed before placed odds were stored fall back to the current odds
+                tracked.legs.put(outcome.getId(), new Leg(placed.getOrDefault(outcome.getId(), outcome.getOdds()),
+                        outcome.getOdds(), outcome.getStatus(),
+                        outcome.getEvent() != null ? outcome.getEvent().getDate() : null));
+            }
+            put(tracked);
+        }
+    }
+
+    private void put(Tracked tracked) {
+        if (!tracked.recompute()) {
+            return;
+        }
+        bets.put(tracked.betId, tracked);
+        for (Long outcomeId : tracked.legs.keySet()) {
+            betsByOutcome.computeIfAbsent(outcomeId, id -> ConcurrentHashMap.newKeySet()).add(tracked.betId);
+        }
+    }
+
+    private void remove(Long betId) {
+        Tracked tracked = bets.remove(betId);
+        if (tracked == null) {
+            return;
+        }
+        for (Long outcomeId : tracked.legs.keySet()) {
+            Set<Long> ids = betsByOutcome.get(outcomeId);
+            if (ids != null) {
+                ids.remove(betId);
+                if (ids.isEmpty()) {
+                    betsByOutcome.remove(outcomeId, ids);
+                }
+            }
+        }
+    }
+
+    private List<Long> betsFor(Long outcomeId) {
+        Set<Long> ids = betsByOutcome.get(outcomeId);
+        return ids != null ? new ArrayList<>(ids) : List.of();
+    }
+
+    private static final class Leg {
+        // Odds the bet was placed at: what the leg pays if it wins
+        private final BigDecimal placedOdds;
+        // Latest odds for the outcome, used while the leg is open
+        private BigDecimal currentOdds;
+        private Outcome.OutcomeStatus status;
+        private LocalDateTime kickoff;
+
+        private Leg(BigDecimal placedOdds, BigDecimal currentOdds, Outcome.OutcomeStatus status,
+                LocalDateTime kickoff) {
+            this.placedOdds = placedOdds;
+            this.currentOdds = currentOdds;
+            this.status = status;
+            this.kickoff = kickoff;
+        }
+    }
+
+    private final class Tracked {
+        private final Long betId;
+        private final Long userId;
+        private final BigDecimal amount;
+        private final Map<Long, Leg> legs = new HashMap<>();
+
+        // Derived state, recomputed on every leg change
+        private BigDecimal placedOdds;
+        private BigDecimal settledOdds;
+        private BigDecimal openOdds;
+        private int openLegs;
+        private LocalDateTime firstKickoff;
+
+        private Tracked(Long betId, Long userId, BigDecimal amount) {
+            this.betId = betId;
+            this.userId = userId;
+            this.amount = amount;
+        }
+
+        /**
+         * @return false if the bet can no longer be cashed out
+         */
+        private synchronized boolean updateLeg(Long outcomeId, Outcome.OutcomeStatus status, BigDecimal odds,
+                LocalDateTime kickoff) {
+            Leg leg = legs.get(outcomeId);
+            if (leg == null) {
+                return true;
+            }
+            if (status != null) {
+                leg.status = status;
+            }
+            if (odds != null && leg.status == Outcome.OutcomeStatus.PENDING) {
+                leg.currentOdds = odds;
+            }
+            if (kickoff != null) {
+                leg.kickoff = kickoff;
+            }
+            return recompute();
+        }
+
+        private synchronized boolean recompute() {
+            BigDecimal placed = BigDecimal.ONE;
+            BigDecimal settled = BigDecimal.ONE;
+            BigDecimal open = BigDecimal.ONE;
+            int openCount = 0;
+            LocalDateTime first = null;
+            for (Leg leg : legs.values()) {
+                switch (leg.status) {
+                    case LOST:
+                        return false;
+                    case WON:
+                        placed = placed.multiply(leg.placedOdds);
+                        settled = settled.multiply(leg.placedOdds);
+                        break;
+                    case PENDING:
+                        placed = placed.multiply(leg.placedOdds);
+                        open = open.multiply(leg.currentOdds);
+                        openCount++;
+                        if (leg.kickoff != null && (first == null || leg.kickoff.isBefore(first))) {
+                            first = leg.kickoff;
+                        }
+                        break;
+                    default:
+                        // VOID legs count as odds 1
+                        break;
+                }
+            }
+            placedOdds = placed;
+            settledOdds = settled;
+            openOdds = open;
+            openLegs = openCount;
+            firstKickoff = first;
+            return openCount > 0;
+        }
+
+        private synchronized CashOutQuoteDTO quote(LocalDateTime now) {
+            BigDecimal projected = amount.multiply(placedOdds);
+            // Divided last: 1 / openOdds rounded first can shave a cent off exact offers
+            BigDecimal offer = projected.multiply(cashOutFactor).divide(openOdds, MathContext.DECIMAL64)
+                    .setScale(2, RoundingMode.DOWN);
+
+            String reason = null;
+            if (openLegs == 0) {
+                reason = "Bet is being settled";
+            } else if (firstKickoff != null && firstKickoff.isBefore(now)) {
+                reason = "Cash-out is not available once an event has started";
+            }
+            return new CashOutQuoteDTO(betId, amount, settledOdds, openOdds,
+                    projected.setScale(2, RoundingMode.HALF_UP), offer, reason == null, reason);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.furbitobet.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versiones de contenido de los recursos públicos que la PWA consulta
+ * periódicamente. Los servicios que modifican los datos de un recurso llaman
+ * a bump() y la versión se incrementa tras el commit. Los controladores
+ * responden con un ETag derivado de la versión y contestan 304 a un
+ * If-None-Match que coincide sin calcular la respuesta ni tocar la base de
+ * datos.
+ *
+ * El ETag incluye el instante de arranque, así que un reinicio invalida todos
+ * los que tengan los clientes.
+ */
+@Service
+public class ContentVersionService {
+
+    public enum Resource {
+        EVENTS, RANKING, LEAGUE, PLAYERS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    // 0 = clients must revalidate on every poll (cheap with a 304)
+    @Value("${http.cache.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    public ContentVersionService() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    /**
+     * Marca el recurso como modificado. Dentro de una transacción se aplica
+     * tras el commit, para que nadie reciba el ETag nuevo con datos viejos.
+     */
+    public void bump(Resource resource) {
+        AfterCommit.run(() -> versions.get(resource).incrementAndGet());
+    }
+
+    public String getETag(Resource resource) {
+        return "\"" + resource.name().toLowerCase() + "-" + epoch + "-" + versions.get(resource).get() + "\"";
+    }
+
+    /**
+     * Devuelve 304 si el cliente ya tiene la versión actual; si no, calcula el
+     * cuerpo y lo devuelve con su ETag.
+     */
+    public <T> ResponseEntity<T> conditional(Resource resource, WebRequest request, Supplier<T> body) {
+        return conditionalEntity(resource, request, () -> ResponseEntity.ok(body.get()));
+    }
+
+    /**
+     * Como conditional(), para controladores que ya construyen su propia
+     * respuesta (p.ej. 404). Solo las respuestas 2xx llevan ETag.
+     */
+    public <T> ResponseEntity<T> conditionalEntity(Resource resource, WebRequest request,
+            Supplier<ResponseEntity<T>> response) {
+        // Read the version before building the body: if it changes meanwhile, the
+        // client just gets a 200 again on its next poll, never a stale 304
+        String etag = getETag(resource);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl()).build();
+        }
+
+        ResponseEntity<T> result = response.get();
+        if (!result.getStatusCode().is2xxSuccessful()) {
+            return result;
+        }
+        return ResponseEntity.status(result.getStatusCode()).headers(result.getHeaders()).eTag(etag)
+                .cacheControl(cacheControl()).body(result.getBody());
+    }
+
+    private CacheControl cacheControl() {
+        return maxAgeSeconds > 0 ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.EmailOutbox;
+import com.furbitobet.backend.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vacía email_outbox en segundo plano, por lotes, fuera de cualquier
+ * transacción de negocio. Los envíos fallidos se reintentan hasta
+ * email.outbox.max-attempts veces antes de marcarse como FAILED.
+ *
+ * Cada lote se reserva con un UPDATE ... FOR UPDATE SKIP LOCKED antes de
+ * enviarlo, así que varias instancias de la aplicación no envían el mismo
+ * email. Los envíos corren en un hilo propio para que una llamada lenta a
+ * Brevo no retrase las demás tareas programadas.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.poll-interval-ms:10000}")
+    private long pollIntervalMs;
+
+    // A claim older than this is considered abandoned (instance died mid-batch)
+    @Value("${email.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                dispatch();
+            } catch (Exception e) {
+                // A failed run must not cancel the schedule
+                logger.error("Email outbox dispatch failed", e);
+            }
+        }, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void dispatch() {
+        // Each pending email is attempted at most once per run
+        long lastId = 0L;
+        int claimed;
+        do {
+            String token = UUID.randomUUID().toString();
+            LocalDateTime now = LocalDateTime.now();
+            claimed = emailOutboxRepository.claimPending(token, now,
+                    now.minusNanos(claimTimeoutMs * 1_000_000), lastId, batchSize);
+            for (EmailOutbox email : emailOutboxRepository.findByClaimTokenOrderByIdAsc(token)) {
+                deliver(email);
+                lastId = Math.max(lastId, email.getId());
+            }
+        } while (claimed == batchSize);
+    }
+
+    private void deliver(EmailOutbox email) {
+        email.setAttempts(email.getAttempts() + 1);
+        try {
+            emailService.deliverSimpleMessage(email.getRecipient(), email.getSubject(), email.getBody());
+            email.setStatus(EmailOutbox.OutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        } catch (Exception e) {
+            email.setLastError(e.getMessage());
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutbox.OutboxStatus.FAILED);
+                logger.error("Giving up on outbox email {} after {} attempts: {}", email.getId(),
+                        email.getAttempts(), e.getMessage());
+            } else {
+                logger.warn("Outbox email {} failed (attempt {}): {}", email.getId(), email.getAttempts(),
+                        e.getMessage());
+            }
+        }
+        // Release the claim: failures go back to PENDING for the next run
+        email.setClaimToken(null);
+        email.setClaimedAt(null);
+        emailOutboxRepository.save(email);
+    }
+}
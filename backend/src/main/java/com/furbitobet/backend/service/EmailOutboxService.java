@@ -0,0 +1,37 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.EmailOutbox;
+import com.furbitobet.backend.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Encola emails en la tabla email_outbox dentro de la transacción actual.
+ * Si la transacción hace rollback el email no se envía; si el proceso cae
+ * después del commit, el dispatcher lo enviará al arrancar.
+ */
+@Service
+public class EmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        if (to == null || to.isEmpty()) {
+            return;
+        }
+
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(EmailOutbox.OutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setCreatedAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
+    }
+}
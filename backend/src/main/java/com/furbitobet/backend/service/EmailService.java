@@ -205,6 +205,15 @@ public class EmailService {
         sendEmail(to, to, subject, htmlContent);
     }
 
+    /**
+     * Envío síncrono usado por el outbox: lanza excepción si Brevo falla para
+     * que el email se pueda reintentar.
+     */
+    public void deliverSimpleMessage(String to, String subject, String text) {
+        String htmlContent = "<html><body><p>" + text.replace("\n", "<br>") + "</p></body></html>";
+        postToBrevo(to, to, subject, htmlContent);
+    }
+
     @Async
     public void sendNewsEmail(String to, String username) {
         System.out.println("Sending news email to: " + to);
@@ -540,31 +549,35 @@ public class EmailService {
 
     private void sendEmail(String toEmail, String toName, String subject, String htmlContent) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("api-key", brevoApiKey);
+            postToBrevo(toEmail, toName, subject, htmlContent);
+        } catch (Exception e) {
+            System.err.println("Failed to send email via Brevo to " + toEmail + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            Map<String, Object> body = new HashMap<>();
-            Map<String, String> sender = new HashMap<>();
-            sender.put("name", "FurbitoBET");
-            sender.put("email", "furbitobet@gmail.com");
-            body.put("sender", sender);
+    private void postToBrevo(String toEmail, String toName, String subject, String htmlContent) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("api-key", brevoApiKey);
 
-            Map<String, String> recipient = new HashMap<>();
-            recipient.put("email", toEmail);
-            recipient.put("name", toName);
-            body.put("to", Collections.singletonList(recipient));
+        Map<String, Object> body = new HashMap<>();
+        Map<String, String> sender = new HashMap<>();
+        sender.put("name", "FurbitoBET");
+        sender.put("email", "furbitobet@gmail.com");
+        body.put("sender", sender);
 
-            body.put("subject", subject);
-            body.put("htmlContent", htmlContent);
+        Map<String, String> recipient = new HashMap<>();
+        recipient.put("email", toEmail);
+        recipient.put("name", toName);
+        body.put("to", Collections.singletonList(recipient));
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
+        body.put("subject", subject);
+        body.put("htmlContent", htmlContent);
 
-            restTemplate.postForEntity(brevoApiUrl, request, String.class);
-            System.out.println("Email sent successfully via Brevo to: " + toEmail);
-        } catch (Exception e) {
-            System.err.println("Failed to send email via Brevo to " + toEmail + ": " + e.getMessage());
-            e.printStackTrace();
-        }
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
+
+        restTemplate.postForEntity(brevoApiUrl, request, String.class);
+        System.out.println("Email sent successfully via Brevo to: " + toEmail);
     }
 }
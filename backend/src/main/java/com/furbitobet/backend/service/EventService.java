@@ -36,6 +36,8 @@ public class EventService {
 
         // Generar cuotas de jugadores automáticamente usando el nuevo servicio
         generatePlayerOdds(savedEvent);
+        outcomeSnapshotService.refreshEvent(savedEvent.getId());
+        liveUpdateService.publishEvent(savedEvent);
 
         if (notifyUsers) {
             try {
@@ -99,6 +101,8 @@ public class EventService {
 
         // Regenerar cuotas
         playerOddsService.generateAllPlayerOdds(event);
+        outcomeSnapshotService.refreshEvent(eventId);
+        liveUpdateService.publishEvent(event);
     }
 
     public Outcome addOutcome(Long eventId, String description, BigDecimal odds) {
@@ -113,13 +117,52 @@ public class EventService {
         outcome.setOdds(odds);
         outcome.setStatus(Outcome.OutcomeStatus.PENDING);
         outcome.setOutcomeGroup(group);
-        return outcomeRepository.save(outcome);
+        com.furbitobet.backend.service.market.OutcomeMetadata.apply(outcome, null);
+        Outcome saved = outcomeRepository.save(outcome);
+        outcomeSnapshotService.refreshEvent(eventId);
+        liveUpdateService.publishEvent(event);
+        return saved;
     }
 
     public List<Event> getAllEvents() {
         return eventRepository.findAll();
     }
 
+    // Tamaño de página por defecto y máximo del catálogo
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Página del catálogo de eventos ordenada por fecha e id, de más antiguo a
+     * más reciente o al revés con newestFirst. El cursor es el par "fecha,id"
+     * del último evento de la página anterior, así que cada página es una
+     * búsqueda por índice independientemente de lo lejos que esté.
+     */
+    public com.furbitobet.backend.dto.EventPageDTO getEventPage(java.util.Collection<Event.EventStatus> statuses,
+            LocalDateTime from, LocalDateTime to, String cursor, Integer limit, boolean newestFirst) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        KeysetCursor after = KeysetCursor.parse(cursor, newestFirst);
+        LocalDateTime lower = from != null ? from : KeysetCursor.MIN_DATE;
+        LocalDateTime upper = to != null ? to : KeysetCursor.MAX_DATE;
+
+        // One extra row tells whether there is a next page
+        java.util.Collection<Event.EventStatus> filter = statuses == null || statuses.isEmpty()
+                ? java.util.EnumSet.allOf(Event.EventStatus.class) : statuses;
+        org.springframework.data.domain.Pageable page = org.springframework.data.domain.PageRequest.of(0, size + 1);
+        List<com.furbitobet.backend.dto.EventSummaryDTO> events = newestFirst
+                ? eventRepository.findSummariesNewestFirst(filter, lower, upper, after.getDate(), after.getId(), page)
+                : eventRepository.findSummaries(filter, lower, upper, after.getDate(), after.getId(), page);
+
+        String nextCursor = null;
+        if (events.size() > size) {
+            events = new java.util.ArrayList<>(events.subList(0, size));
+            com.furbitobet.backend.dto.EventSummaryDTO last = events.get(size - 1);
+            nextCursor = KeysetCursor.of(last.getDate(), last.getId());
+        }
+        return new com.furbitobet.backend.dto.EventPageDTO(events, nextCursor);
+    }
+
     public Event getEventById(Long id) {
         return eventRepository.findById(id).orElseThrow(() -> new RuntimeException("Event not found"));
     }
@@ -130,7 +173,11 @@ public class EventService {
             event.setName(name);
         if (date != null)
             event.setDate(date);
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        // A new kickoff time changes whether its outcomes can still be bet on
+        outcomeSnapshotService.refreshEvent(id);
+        liveUpdateService.publishEvent(saved);
+        return saved;
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -149,19 +196,32 @@ public class EventService {
             newOutcome.setOutcomeGroup(o.getOutcomeGroup());
             newOutcome.setEvent(savedClone);
             newOutcome.setStatus(Outcome.OutcomeStatus.PENDING);
+            newOutcome.setPlayerId(o.getPlayerId());
+            com.furbitobet.backend.service.market.OutcomeMetadata.apply(newOutcome);
             outcomeRepository.save(newOutcome);
         }
+        outcomeSnapshotService.refreshEvent(savedClone.getId());
+        liveUpdateService.publishEvent(savedClone);
         return savedClone;
     }
 
     public Outcome updateOutcome(Long id, String description, BigDecimal odds, String outcomeGroup) {
         Outcome outcome = outcomeRepository.findById(id).orElseThrow(() -> new RuntimeException("Outcome not found"));
+        // Odds changes reach live clients as "odds" messages; anything else as an event update
+        boolean relabelled = (description != null && !description.equals(outcome.getDescription()))
+                || !java.util.Objects.equals(outcomeGroup, outcome.getOutcomeGroup());
         if (description != null)
             outcome.setDescription(description);
         if (odds != null)
-            outcome.setOdds(odds);
+            outcome.updateOdds(odds);
         outcome.setOutcomeGroup(outcomeGroup);
-        return outcomeRepository.save(outcome);
+        com.furbitobet.backend.service.market.OutcomeMetadata.apply(outcome);
+        Outcome saved = outcomeRepository.save(outcome);
+        outcomeSnapshotService.refreshEvent(saved.getEvent().getId());
+        if (relabelled) {
+            liveUpdateService.publishEvent(saved.getEvent());
+        }
+        return saved;
     }
 
     @Autowired
@@ -170,48 +230,118 @@ public class EventService {
     @Autowired
     private com.furbitobet.backend.service.UserService userService;
 
-    @org.springframework.transaction.annotation.Transactional
+    /**
+     * Borra un evento. Primero lo marca CANCELLED para que no entren apuestas
+     * nuevas; después anula y reembolsa las apuestas pendientes usuario a
+     * usuario en los carriles de monedero, los únicos que escriben saldo, y
+     * por último borra el evento. Si algo falla a medias, repetir el borrado
+     * retoma lo que falte sin reembolsar dos veces la misma apuesta.
+     */
     public void deleteEvent(Long id) {
-        // 1. Find the event
+        // 1. Find the event and close it to new bets
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
+        event.setStatus(Event.EventStatus.CANCELLED);
+        eventRepository.save(event);
+        outcomeSnapshotService.removeEvent(id);
 
-        // 2. Find all bets associated with this event
-        List<com.furbitobet.backend.model.Bet> bets = betRepository.findDistinctByOutcomes_Event_Id(id);
-
-        // 3. Void bets and refund users if they were pending
-        for (com.furbitobet.backend.model.Bet bet : bets) {
-            if (bet.getStatus() == com.furbitobet.backend.model.Bet.BetStatus.PENDING) {
-                bet.setStatus(com.furbitobet.backend.model.Bet.BetStatus.VOID);
-                bet.setWinnings(bet.getAmount()); // Set winnings to original amount (refund)
-
-                // Refund the user
-                userService.updateBalance(bet.getUser().getId(), bet.getAmount());
-                betRepository.save(bet);
-
-                // Optionally send notification email
-                try {
-                    String subject = "Evento Cancelado - Apuesta #" + bet.getId() + " Anulada";
-                    String body = "Hola " + bet.getUser().getUsername() + ",\n\n" +
-                            "El evento \"" + event.getName() + "\" ha sido cancelado por el administrador.\n" +
-                            "Tu apuesta #" + bet.getId() + " ha sido anulada.\n" +
-                            "Se te ha devuelto el importe de " + String.format("%.2f", bet.getAmount()) + "€.\n\n" +
-                            "Lamentamos las molestias.\n\n" +
-                            "FurbitoBET";
-                    emailService.sendSimpleMessage(bet.getUser().getEmail(), subject, body);
-                } catch (Exception e) {
-                    System.err
-                            .println("Error sending cancellation email for bet " + bet.getId() + ": " + e.getMessage());
-                }
+        // 2. Void and refund the pending bets, each user on their wallet lane
+        java.util.Map<Long, List<Long>> partitions = new java.util.LinkedHashMap<>();
+        for (Object[] row : betRepository.findIdAndUserIdByEventIdAndStatus(id,
+                com.furbitobet.backend.model.Bet.BetStatus.PENDING)) {
+            partitions.computeIfAbsent((Long) row[1], userId -> new java.util.ArrayList<>()).add((Long) row[0]);
+        }
+        java.util.Map<Long, java.util.function.Supplier<Void>> commands = new java.util.LinkedHashMap<>();
+        for (java.util.Map.Entry<Long, List<Long>> partition : partitions.entrySet()) {
+            commands.put(partition.getKey(), () -> {
+                refundUserBets(event, partition.getValue());
+                return null;
+            });
+        }
+        walletCommandExecutor.executeEach(commands);
+
+        // 3. Delete the event (cascades to outcomes) together with its exposure rows
+        new org.springframework.transaction.support.TransactionTemplate(transactionManager)
+                .executeWithoutResult(tx -> {
+                    exposureService.removeEvent(id);
+                    eventRepository.deleteById(id);
+                });
+        liveUpdateService.publishEventDeleted(id);
+    }
+
+    // Runs on the user's wallet lane, inside the lane's transaction
+    private void refundUserBets(Event event, List<Long> betIds) {
+        List<Long> voidedBetIds = new java.util.ArrayList<>();
+        List<com.furbitobet.backend.model.WalletLedgerEntry> refunds = new java.util.ArrayList<>();
+        List<com.furbitobet.backend.model.Bet> voided = new java.util.ArrayList<>();
+        for (com.furbitobet.backend.model.Bet bet : betRepository.findAllWithOutcomesByIdIn(betIds)) {
+            // Settled, cancelled or already refunded by an earlier attempt
+            if (bet.getStatus() != com.furbitobet.backend.model.Bet.BetStatus.PENDING) {
+                continue;
             }
+            voidedBetIds.add(bet.getId());
+            voided.add(bet);
+            bet.setStatus(com.furbitobet.backend.model.Bet.BetStatus.VOID);
+            bet.setWinnings(bet.getAmount()); // Set winnings to original amount (refund)
+
+            // Refund the user
+            refunds.add(WalletLedgerService.entry(bet.getUser().getId(), bet.getAmount(),
+                    com.furbitobet.backend.model.WalletLedgerEntry.EntryType.EVENT_CANCEL_REFUND, bet.getId(),
+                    event.getName()));
+            betRepository.save(bet);
+
+            // Notify through the outbox so the email is only sent if this transaction commits
+            emailOutboxService.enqueue(bet.getUser().getEmail(),
+                    "Evento Cancelado - Apuesta #" + bet.getId() + " Anulada",
+                    buildCancellationBody(bet, event));
         }
 
-        // 4. Delete the event (cascades to outcomes)
-        eventRepository.deleteById(id);
+        walletLedgerService.record(refunds);
+        exposureService.removeBets(voidedBetIds);
+        cashOutService.untrack(voidedBetIds);
+        for (com.furbitobet.backend.model.Bet bet : voided) {
+            liveUpdateService.publishBet(bet.getUser().getId(), bet.getId(), bet.getStatus(), bet.getWinnings());
+        }
+    }
+
+    private String buildCancellationBody(com.furbitobet.backend.model.Bet bet, Event event) {
+        return "Hola " + bet.getUser().getUsername() + ",\n\n" +
+                "El evento \"" + event.getName() + "\" ha sido cancelado por el administrador.\n" +
+                "Tu apuesta #" + bet.getId() + " ha sido anulada.\n" +
+                "Se te ha devuelto el importe de " + String.format("%.2f", bet.getAmount()) + "€.\n\n" +
+                "Lamentamos las molestias.\n\n" +
+                "FurbitoBET";
     }
 
     @Autowired
-    private BetService betService;
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private ExposureService exposureService;
+
+    @Autowired
+    private org.springframework.transaction.PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
+
+    @Autowired
+    private CashOutService cashOutService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private SettlementEngine settlementEngine;
+
+    @Autowired
+    private com.furbitobet.backend.service.market.MarketResolverRegistry marketResolverRegistry;
 
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(EventService.class);
 
@@ -224,91 +354,26 @@ public class EventService {
 
         List<Outcome> outcomes = outcomeRepository.findByEventId(event.getId());
 
-        for (Outcome outcome : outcomes) {
-            String desc = outcome.getDescription();
-            String group = outcome.getOutcomeGroup();
+        java.util.Map<Long, Outcome.OutcomeStatus> statuses = marketResolverRegistry.resolveAll(event, outcomes,
+                homeGoals, awayGoals);
 
-            boolean won = false;
-            boolean voided = false;
-
-            // 1X2
-            if (group.equals("Ganador del Partido")) {
-                if (desc.equals("1") && homeGoals > awayGoals)
-                    won = true;
-                else if (desc.equals("X") && homeGoals == awayGoals)
-                    won = true;
-                else if (desc.equals("2") && awayGoals > homeGoals)
-                    won = true;
-            }
-            // Double Chance
-            else if (group.equals("Doble Oportunidad")) {
-                if (desc.equals("1X") && homeGoals >= awayGoals)
-                    won = true;
-                else if (desc.equals("X2") && awayGoals >= homeGoals)
-                    won = true;
-                else if (desc.equals("12") && homeGoals != awayGoals)
-                    won = true;
-            }
-            // Draw No Bet
-            else if (group.equals("Apuesta sin Empate")) {
-                if (homeGoals == awayGoals)
-                    voided = true;
-                else if (desc.startsWith("1") && homeGoals > awayGoals)
-                    won = true;
-                else if (desc.startsWith("2") && awayGoals > homeGoals)
-                    won = true;
-            }
-            // Over/Under Goals
-            else if (group.equals("Goles - Más de")) {
-                double line = Double.parseDouble(desc.replace("Más de ", ""));
-                if (homeGoals + awayGoals > line)
-                    won = true;
-            } else if (group.equals("Goles - Menos de")) {
-                double line = Double.parseDouble(desc.replace("Menos de ", ""));
-                if (homeGoals + awayGoals < line)
-                    won = true;
-            }
-            // Team Goals
-            else if (group.contains(" - Más de")) {
-                double line = Double.parseDouble(desc.replace("Más de ", ""));
-                if (group.contains(event.getDescription().split(" vs ")[0])) { // Home Team
-                    if (homeGoals > line)
-                        won = true;
-                } else { // Away Team
-                    if (awayGoals > line)
-                        won = true;
-                }
-            } else if (group.contains(" - Menos de")) {
-                double line = Double.parseDouble(desc.replace("Menos de ", ""));
-                if (group.contains(event.getDescription().split(" vs ")[0])) { // Home Team
-                    if (homeGoals < line)
-                        won = true;
-                } else { // Away Team
-                    if (awayGoals < line)
-                        won = true;
-                }
-            }
-            // BTTS
-            else if (group.equals("Ambos Marcan")) {
-                if (desc.equals("Sí") && homeGoals > 0 && awayGoals > 0)
-                    won = true;
-                else if (desc.equals("No") && (homeGoals == 0 || awayGoals == 0))
-                    won = true;
-            }
-
-            if (voided) {
-                outcome.setStatus(Outcome.OutcomeStatus.VOID);
-            } else if (won) {
-                outcome.setStatus(Outcome.OutcomeStatus.WON);
-            } else {
-                outcome.setStatus(Outcome.OutcomeStatus.LOST);
-            }
-            outcomeRepository.save(outcome);
+        // Persist with one UPDATE per resulting status instead of one save per outcome
+        java.util.Map<Outcome.OutcomeStatus, java.util.List<Long>> idsByStatus = new java.util.EnumMap<>(
+                Outcome.OutcomeStatus.class);
+        for (java.util.Map.Entry<Long, Outcome.OutcomeStatus> entry : statuses.entrySet()) {
+            idsByStatus.computeIfAbsent(entry.getValue(), status -> new java.util.ArrayList<>()).add(entry.getKey());
+        }
+        for (java.util.Map.Entry<Outcome.OutcomeStatus, java.util.List<Long>> entry : idsByStatus.entrySet()) {
+            outcomeRepository.updateStatusByIdIn(entry.getKey(), entry.getValue());
         }
 
         event.setStatus(Event.EventStatus.COMPLETED);
         eventRepository.save(event);
+        outcomeSnapshotService.removeEvent(event.getId());
+        cashOutService.onOutcomesSettled(statuses);
+        liveUpdateService.publishEvent(event);
 
-        betService.settleBets(event);
+        settlementEngine.settleEvent(event);
     }
+
 }
@@ -30,6 +30,12 @@ public class EventSyncService {
     @Autowired
     private com.furbitobet.backend.repository.OutcomeRepository outcomeRepository;
 
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
@@ -124,6 +130,8 @@ public class EventSyncService {
                         // outcome descriptions
                         createOutcomesForEvent(newEvent, homeTeam, awayTeam, formattedHome, formattedAway, standings);
                         eventService.generatePlayerOdds(newEvent);
+                        outcomeSnapshotService.refreshEvent(newEvent.getId());
+                        liveUpdateService.publishEvent(newEvent);
                     }
 
                 } catch (Exception e) {
@@ -358,6 +366,7 @@ public class EventSyncService {
         outcome.setOutcomeGroup(group);
         outcome.setOdds(java.math.BigDecimal.valueOf(odds).setScale(2, java.math.RoundingMode.HALF_UP));
         outcome.setStatus(com.furbitobet.backend.model.Outcome.OutcomeStatus.PENDING);
+        com.furbitobet.backend.service.market.OutcomeMetadata.apply(outcome, null);
         outcomeRepository.save(outcome);
     }
 
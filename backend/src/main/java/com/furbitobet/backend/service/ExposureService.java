@@ -0,0 +1,121 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.model.OutcomeExposure;
+import com.furbitobet.backend.repository.BetRepository;
+import com.furbitobet.backend.repository.OutcomeExposureRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mantiene outcome_exposure. Cada apuesta que entra en PENDING suma su importe
+ * y su pago potencial a todas sus selecciones, y los resta al salir de
+ * PENDING (cancelación o liquidación). Las actualizaciones son un único upsert
+ * agregado por selección, así que también sirven para lotes grandes.
+ */
+@Service
+public class ExposureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExposureService.class);
+
+    @Autowired
+    private OutcomeExposureRepository outcomeExposureRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Apuestas que pasan a PENDING (nuevas o re-abiertas por una corrección).
+     */
+    @Transactional
+    public void addBets(Collection<Long> betIds) {
+        if (!betIds.isEmpty()) {
+            outcomeExposureRepository.applyBets(betIds, 1);
+        }
+    }
+
+    /**
+     * Apuestas que dejan de estar PENDING (canceladas, anuladas o liquidadas).
+     */
+    @Transactional
+    public void removeBets(Collection<Long> betIds) {
+        if (!betIds.isEmpty()) {
+            outcomeExposureRepository.applyBets(betIds, -1);
+        }
+    }
+
+    /**
+     * Evento borrado: sus apuestas pendientes ya se restaron al anularlas y sus
+     * selecciones desaparecen, así que se quitan sus filas.
+     */
+    @Transactional
+    public void removeEvent(Long eventId) {
+        outcomeExposureRepository.deleteByEventId(eventId);
+    }
+
+    public OutcomeExposure getExposure(Long outcomeId) {
+        return outcomeExposureRepository.findById(outcomeId).orElseGet(() -> {
+            OutcomeExposure empty = new OutcomeExposure();
+            empty.setOutcomeId(outcomeId);
+            return empty;
+        });
+    }
+
+    public List<OutcomeExposure> getEventExposure(Long eventId) {
+        return outcomeExposureRepository.findByEventId(eventId);
+    }
+
+    /**
+     * Pago potencial de una apuesta combinada: importe por el producto de cuotas.
+     */
+    public static BigDecimal potentialPayout(BigDecimal amount, Collection<Outcome> outcomes) {
+        BigDecimal totalOdds = BigDecimal.ONE;
+        for (Outcome outcome : outcomes) {
+            totalOdds = totalOdds.multiply(outcome.getOdds());
+        }
+        return amount.multiply(totalOdds);
+    }
+
+    /**
+     * Recalcula la tabla desde cero a partir de las apuestas pendientes.
+     * Las apuestas anteriores a la columna potential_payout la rellenan aquí.
+     */
+    @Transactional
+    public void rebuild() {
+        for (Bet bet : betRepository.findByStatus(Bet.BetStatus.PENDING)) {
+            if (bet.getPotentialPayout() == null) {
+                bet.setPotentialPayout(potentialPayout(bet.getAmount(), bet.getOutcomes()));
+                betRepository.save(bet);
+            }
+        }
+        outcomeExposureRepository.deleteAllRows();
+        int rows = outcomeExposureRepository.insertFromPendingBets();
+        logger.info("Rebuilt outcome exposure: {} outcomes", rows);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (outcomeExposureRepository.count() == 0) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception e) {
+            logger.error("Could not initialize outcome exposure: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.furbitobet.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.furbitobet.backend.model.IdempotencyRecord;
+import com.furbitobet.backend.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Soporte de la cabecera Idempotency-Key. La primera petición con una clave
+ * se ejecuta y su respuesta se guarda en idempotency_keys en la misma
+ * transacción que la operación; los reintentos con la misma clave reciben esa
+ * respuesta sin volver a tocar el saldo. La respuesta queda ligada a un hash
+ * del cuerpo de la petición: reutilizar la clave con otro cuerpo (otras
+ * selecciones u otro importe) se rechaza con 422 en lugar de devolver la
+ * respuesta de la primera.
+ *
+ * Las respuestas recientes se mantienen además en una caché LRU acotada para
+ * no ir a la base de datos en los reintentos. Ambas caducan tras
+ * idempotency.ttl-hours.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, IdempotencyRecord> cache;
+
+    // Claves con una petición en curso en esta instancia
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(PlatformTransactionManager transactionManager,
+            @Value("${idempotency.cache.max-entries:10000}") int maxEntries) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = java.util.Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Como execute(userId, scope, key, request, action), para operaciones sin
+     * cuerpo de petición.
+     */
+    public ResponseEntity<?> execute(Long userId, String scope, String key, Supplier<ResponseEntity<?>> action) {
+        return execute(userId, scope, key, null, action);
+    }
+
+    /**
+     * Ejecuta action una sola vez por (usuario, scope, clave). Sin clave se
+     * ejecuta siempre. Si la operación lanza una excepción no se guarda nada y
+     * el cliente puede reintentar con la misma clave. request es el cuerpo de
+     * la petición: un reintento con la misma clave y otro cuerpo recibe 422.
+     */
+    public ResponseEntity<?> execute(Long userId, String scope, String key, Object request,
+            Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + scope + ":" + key;
+        String requestHash = hash(request);
+        IdempotencyRecord stored = lookup(cacheKey, userId, scope, key);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        if (!inFlight.add(cacheKey)) {
+            return ResponseEntity.status(409).body("A request with this " + HEADER + " is already being processed");
+        }
+        try {
+            // Another instance may have finished it between the lookup and the guard
+            stored = lookup(cacheKey, userId, scope, key);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+
+            return transactionTemplate.execute(status -> {
+                ResponseEntity<?> result = action.get();
+                IdempotencyRecord saved = idempotencyRecordRepository
+                        .save(toRecord(userId, scope, key, requestHash, result));
+                // Only cache once committed: the surrounding transaction may be a wallet
+                // lane batch that is still rolled back and retried
+                AfterCommit.run(() -> cache.put(cacheKey, saved));
+                return result;
+            });
+        } finally {
+            inFlight.remove(cacheKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(record -> record.getExpiresAt().isBefore(now));
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private IdempotencyRecord lookup(String cacheKey, Long userId, String scope, String key) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = cache.get(cacheKey);
+        if (record == null) {
+            record = idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, scope, key)
+                    .orElse(null);
+            if (record != null) {
+                cache.put(cacheKey, record);
+            }
+        }
+        if (record != null && record.getExpiresAt().isBefore(now)) {
+            cache.remove(cacheKey);
+            return null;
+        }
+        return record;
+    }
+
+    // Hash of the request as canonical JSON (map entries sorted), null without a body
+    private String hash(Object request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            byte[] json = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not hash idempotent request", e);
+        }
+    }
+
+    private IdempotencyRecord toRecord(Long userId, String scope, String key, String requestHash,
+            ResponseEntity<?> response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setScope(scope);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatusCode(response.getStatusCode().value());
+
+        Object body = response.getBody();
+        if (body instanceof String) {
+            record.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            record.setResponseBody((String) body);
+        } else if (body != null) {
+            try {
+                record.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                record.setResponseBody(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not store idempotent response", e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plusHours(ttlHours));
+        return record;
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String requestHash) {
+        // Records stored before request hashing have no hash and are replayed as before
+        if (record.getRequestHash() != null && !record.getRequestHash().equals(requestHash)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body("This " + HEADER + " was already used with a different request");
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(record.getStatusCode())
+                .header("Idempotent-Replayed", "true");
+        if (record.getResponseBody() == null) {
+            return builder.build();
+        }
+        return builder.header(HttpHeaders.CONTENT_TYPE, record.getContentType()).body(record.getResponseBody());
+    }
+}
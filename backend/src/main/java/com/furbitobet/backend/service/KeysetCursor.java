@@ -0,0 +1,59 @@
+package com.furbitobet.backend.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cursor de paginación por clave ("fecha,id" del último elemento de la página
+ * anterior), compartido por el catálogo de eventos y el historial de
+ * apuestas. Sin cursor se empieza antes del primer elemento en el orden
+ * pedido; una fecha sin id salta todo lo que tenga exactamente esa fecha.
+ */
+public final class KeysetCursor {
+
+    // Bounds used when the caller doesn't filter by date
+    public static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * Interpreta el cursor recibido del cliente; descending indica si la
+     * página va de más reciente a más antiguo.
+     */
+    public static KeysetCursor parse(String cursor, boolean descending) {
+        if (cursor == null || cursor.isBlank()) {
+            return descending ? new KeysetCursor(MAX_DATE, Long.MAX_VALUE) : new KeysetCursor(MIN_DATE, 0L);
+        }
+        int comma = cursor.lastIndexOf(',');
+        try {
+            if (comma < 0) {
+                return new KeysetCursor(LocalDateTime.parse(cursor), descending ? 0L : Long.MAX_VALUE);
+            }
+            return new KeysetCursor(LocalDateTime.parse(cursor.substring(0, comma)),
+                    Long.parseLong(cursor.substring(comma + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Cursor que apunta justo después del elemento dado.
+     */
+    public static String of(LocalDateTime date, Long id) {
+        return date + "," + id;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,250 @@
+package com.furbitobet.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bus de actualizaciones en directo para GET /api/stream (Server-Sent Events).
+ * Los servicios que modifican eventos, cuotas y apuestas publican mensajes
+ * pequeños con solo lo que ha cambiado; cada mensaje se serializa una vez y
+ * se deja en el búfer de cada cliente conectado, así que publicar no bloquea
+ * a quien modifica los datos. Un grupo pequeño de hilos vacía los búferes; un
+ * cliente lento solo ocupa uno de ellos y, si su búfer (live.client-buffer)
+ * se llena, se le desconecta y el resto sigue recibiendo.
+ *
+ * Tipos de mensaje:
+ * - odds: nueva cuota de una selección (id, eventId, odds, oddsVersion)
+ * - event: evento creado, editado o resuelto, o con selecciones cambiadas
+ * - event-deleted: evento borrado
+ * - bet: cambio de estado de una apuesta, solo para su dueño
+ *
+ * Dentro de una transacción los mensajes se envían tras el commit.
+ */
+@Service
+public class LiveUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
+
+    @Value("${live.max-clients:1000}")
+    private int maxClients;
+
+    @Value("${live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    // Messages waiting to be written to one client before it is dropped as too slow
+    @Value("${live.client-buffer:100}")
+    private int clientBuffer;
+
+    @Value("${live.sender-threads:4}")
+    private int senderThreads;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong threadCount = new AtomicLong();
+
+    // At most one drain task per client is queued, so this queue is bounded by live.max-clients
+    private ExecutorService senders;
+
+    @PostConstruct
+    void registerListener() {
+        senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "live-updates-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Odds changes reach the snapshot after commit, so they can go out right away
+        outcomeSnapshotService.addListener(outcome -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", outcome.getId());
+            data.put("eventId", outcome.getEventId());
+            data.put("odds", outcome.getOdds());
+            data.put("oddsVersion", outcome.getOddsVersion());
+            dispatch("odds", data, null);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        for (Client client : clients) {
+            client.emitter.complete();
+        }
+    }
+
+    /**
+     * Registra un cliente. userId puede ser null (solo recibe mensajes públicos).
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (clients.size() >= maxClients) {
+            throw new RuntimeException("Too many live update clients, please try again later");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(emitter, userId, clientBuffer);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        return emitter;
+    }
+
+    public void publishEvent(Event event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", event.getId());
+        data.put("name", event.getName());
+        data.put("date", event.getDate());
+        data.put("status", event.getStatus());
+        data.put("homeGoals", event.getHomeGoals());
+        data.put("awayGoals", event.getAwayGoals());
+        publish("event", data, null);
+    }
+
+    public void publishEventDeleted(Long eventId) {
+        publish("event-deleted", Map.of("id", eventId), null);
+    }
+
+    public void publishBet(Long userId, Long betId, Bet.BetStatus status, BigDecimal winnings) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", betId);
+        data.put("status", status);
+        data.put("winnings", winnings);
+        publish("bet", data, userId);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @Scheduled(fixedDelayString = "${live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        // Keeps idle connections open through proxies and detects dead clients
+        for (Client client : clients) {
+            enqueue(client, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private void publish(String type, Object data, Long userId) {
+        AfterCommit.run(() -> dispatch(type, data, userId));
+    }
+
+    // userId == null: message for everyone; otherwise only for that user's clients
+    private void dispatch(String type, Object data, Long userId) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize live update of type {}", type, e);
+            return;
+        }
+        String id = Long.toString(sequence.incrementAndGet());
+        for (Client client : clients) {
+            if (userId == null || userId.equals(client.userId)) {
+                enqueue(client, SseEmitter.event().id(id).name(type).data(json, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    // Never blocks: a client whose buffer is full is dropped instead
+    private void enqueue(Client client, SseEmitter.SseEventBuilder event) {
+        if (!client.buffer.offer(event)) {
+            logger.warn("Dropping live update client that is not keeping up ({} messages buffered)",
+                    client.buffer.size());
+            drop(client, null);
+            return;
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = client.buffer.poll()) != null) {
+                if (!send(client, event)) {
+                    client.buffer.clear();
+                    return;
+                }
+            }
+            client.draining.set(false);
+            // A message enqueued after the last poll but before the flag was cleared
+            if (client.buffer.isEmpty() || !client.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private boolean send(Client client, SseEmitter.SseEventBuilder event) {
+        try {
+            client.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            drop(client, e);
+            return false;
+        }
+    }
+
+    private void drop(Client client, Throwable error) {
+        if (clients.remove(client)) {
+            if (error != null) {
+                client.emitter.completeWithError(error);
+            } else {
+                client.emitter.complete();
+            }
+        }
+    }
+
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Client(SseEmitter emitter, Long userId, int bufferSize) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.repository.OutcomeRepository;
+import com.furbitobet.backend.service.market.OutcomeMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Instantánea en memoria de las selecciones de eventos abiertos (cuota y su
+ * versión, grupo, evento, estado y hora de inicio) para validar apuestas sin ir
+ * a la base de datos. Es inmutable y se sustituye entera en cada cambio, así que las
+ * lecturas no bloquean; cada sustitución incrementa la versión.
+ *
+ * EventService y AdminController la refrescan al crear, editar, resolver o
+ * borrar eventos y selecciones. Si una selección no está en la instantánea se
+ * carga de la base de datos una vez, de modo que un cambio sin gancho solo
+ * cuesta una lectura y nunca rechaza una apuesta válida.
+ *
+ * Cada cambio marca también el recurso EVENTS de ContentVersionService.
+ *
+ * La instantánea es local a cada instancia: un cambio hecho en otra no llega
+ * aquí. Por eso, antes de cobrar una apuesta, findStale contrasta con la base
+ * de datos las selecciones validadas y refresca los eventos desfasados.
+ *
+ * Los oyentes registrados con addListener reciben cada selección cuya cuota u
+ * hora de inicio cambia al refrescar un evento.
+ */
+@Service
+public class OutcomeSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutcomeSnapshotService.class);
+
+    private static final EnumSet<Event.EventStatus> CLOSED = EnumSet.of(Event.EventStatus.COMPLETED,
+            Event.EventStatus.CANCELLED);
+
+    @Autowired
+    private OutcomeRepository outcomeRepository;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    private volatile Snapshot current = new Snapshot(0, Collections.emptyMap());
+
+    private final List<Consumer<Entry>> listeners = new CopyOnWriteArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reload();
+    }
+
+    /**
+     * Recarga todas las selecciones abiertas.
+     */
+    public synchronized void reload() {
+        Map<Long, Entry> entries = new HashMap<>();
+        for (Outcome outcome : outcomeRepository.findAllWithEventByEventStatusNotIn(CLOSED)) {
+            entries.put(outcome.getId(), Entry.of(outcome));
+        }
+        current = new Snapshot(current.version + 1, Collections.unmodifiableMap(entries));
+        contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        logger.info("Outcome snapshot v{} loaded with {} open outcomes", current.version, entries.size());
+    }
+
+    /**
+     * Sustituye las selecciones de un evento por su estado actual en la base de
+     * datos. Dentro de una transacción se aplica tras el commit.
+     */
+    public void refreshEvent(Long eventId) {
+        contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        AfterCommit.run(() -> applyEvent(eventId, outcomeRepository.findAllWithEventByEventId(eventId)));
+    }
+
+    /**
+     * Quita las selecciones de un evento resuelto o borrado.
+     */
+    public void removeEvent(Long eventId) {
+        contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        AfterCommit.run(() -> applyEvent(eventId, Collections.emptyList()));
+    }
+
+    /**
+     * Quita una selección borrada.
+     */
+    public void removeOutcome(Long outcomeId) {
+        contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (current.entries.containsKey(outcomeId)) {
+                    Map<Long, Entry> entries = new HashMap<>(current.entries);
+                    entries.remove(outcomeId);
+                    current = new Snapshot(current.version + 1, Collections.unmodifiableMap(entries));
+                }
+            }
+        });
+    }
+
+    /**
+     * Devuelve las selecciones pedidas, en el orden de los ids y sin
+     * duplicados. Las que faltan en la instantánea se leen de la base de datos;
+     * las que no existen no aparecen en el resultado.
+     */
+    public List<Entry> getAll(Collection<Long> outcomeIds) {
+        Snapshot snapshot = current;
+        Map<Long, Entry> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : outcomeIds) {
+            Entry entry = snapshot.entries.get(id);
+            if (entry != null) {
+                found.put(id, entry);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Outcome outcome : outcomeRepository.findAllWithEventByIdIn(missing)) {
+                found.put(outcome.getId(), Entry.of(outcome));
+            }
+        }
+
+        List<Entry> result = new ArrayList<>();
+        for (Long id : new java.util.LinkedHashSet<>(outcomeIds)) {
+            Entry entry = found.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compara las selecciones con su versión de cuota, estado de evento y hora
+     * de inicio en la base de datos. Los eventos con alguna selección desfasada
+     * se recargan en la instantánea en el momento, sin esperar al commit: la
+     * apuesta que los detecta se rechaza y su transacción no llega a confirmar.
+     *
+     * @return ids de las selecciones desfasadas o borradas
+     */
+    public java.util.Set<Long> findStale(Collection<Entry> entries) {
+        Map<Long, Entry> byId = new HashMap<>();
+        for (Entry entry : entries) {
+            byId.put(entry.getId(), entry);
+        }
+        if (byId.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        java.util.Set<Long> stale = new java.util.HashSet<>(byId.keySet());
+        java.util.Set<Long> staleEvents = new java.util.HashSet<>();
+        for (Object[] row : outcomeRepository.findVersionsByIdIn(byId.keySet())) {
+            Entry entry = byId.get((Long) row[0]);
+            long oddsVersion = row[1] != null ? (Long) row[1] : 0L;
+            if (oddsVersion == entry.getOddsVersion() && row[2] == entry.getEventStatus()
+                    && Objects.equals(row[3], entry.getKickoff())) {
+                stale.remove(entry.getId());
+            }
+        }
+        for (Long id : stale) {
+            staleEvents.add(byId.get(id).getEventId());
+        }
+        for (Long eventId : staleEvents) {
+            logger.info("Outcome snapshot is stale for event {}; reloading it", eventId);
+            applyEvent(eventId, outcomeRepository.findAllWithEventByEventId(eventId));
+        }
+        return stale;
+    }
+
+    public void addListener(Consumer<Entry> listener) {
+        listeners.add(listener);
+    }
+
+    public long getVersion() {
+        return current.version;
+    }
+
+    public int size() {
+        return current.entries.size();
+    }
+
+    private synchronized void applyEvent(Long eventId, List<Outcome> outcomes) {
+        Map<Long, Entry> previous = current.entries;
+        Map<Long, Entry> entries = new HashMap<>(previous);
+        entries.values().removeIf(entry -> entry.getEventId().equals(eventId));
+        List<Entry> changed = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (!CLOSED.contains(outcome.getEvent().getStatus())) {
+                Entry entry = Entry.of(outcome);
+                Entry old = previous.get(entry.getId());
+                if (old != null && (old.getOddsVersion() != entry.getOddsVersion()
+                        || !Objects.equals(old.getKickoff(), entry.getKickoff()))) {
+                    changed.add(entry);
+                }
+                entries.put(entry.getId(), entry);
+            }
+        }
+        current = new Snapshot(current.version + 1, Collections.unmodifiableMap(entries));
+
+        for (Entry entry : changed) {
+            for (Consumer<Entry> listener : listeners) {
+                try {
+                    listener.accept(entry);
+                } catch (RuntimeException e) {
+                    logger.error("Outcome snapshot listener failed for outcome {}", entry.getId(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<Long, Entry> entries;
+
+        private Snapshot(long version, Map<Long, Entry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * Copia inmutable de una selección y de los datos de su evento que hacen
+     * falta para validar una apuesta.
+     */
+    public static final class Entry {
+        private final Long id;
+        private final String description;
+        private final BigDecimal odds;
+        private final long oddsVersion;
+        private final String outcomeGroup;
+        private final String marketKey;
+        private final Outcome.MarketDirection direction;
+        private final Long eventId;
+        private final String eventName;
+        private final Event.EventStatus eventStatus;
+        private final LocalDateTime kickoff;
+
+        private Entry(Outcome outcome) {
+            OutcomeMetadata.ensure(outcome);
+            Event event = outcome.getEvent();
+            this.id = outcome.getId();
+            this.description = outcome.getDescription();
+            this.odds = outcome.getOdds();
+            this.oddsVersion = outcome.getOddsVersion() != null ? outcome.getOddsVersion() : 0L;
+            this.outcomeGroup = outcome.getOutcomeGroup();
+            this.marketKey = outcome.getMarketKey();
+            this.direction = outcome.getDirection();
+            this.eventId = event.getId();
+            this.eventName = event.getName();
+            this.eventStatus = event.getStatus();
+            this.kickoff = event.getDate();
+        }
+
+        static Entry of(Outcome outcome) {
+            return new Entry(outcome);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public BigDecimal getOdds() {
+            return odds;
+        }
+
+        public long getOddsVersion() {
+            return oddsVersion;
+        }
+
+        public String getOutcomeGroup() {
+            return outcomeGroup;
+        }
+
+        public String getMarketKey() {
+            return marketKey;
+        }
+
+        public Outcome.MarketDirection getDirection() {
+            return direction;
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        public Event.EventStatus getEventStatus() {
+            return eventStatus;
+        }
+
+        public LocalDateTime getKickoff() {
+            return kickoff;
+        }
+    }
+}
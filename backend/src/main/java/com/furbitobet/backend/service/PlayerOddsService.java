@@ -5,6 +5,7 @@ import com.furbitobet.backend.model.Outcome;
 import com.furbitobet.backend.model.Player;
 import com.furbitobet.backend.repository.OutcomeRepository;
 import com.furbitobet.backend.repository.PlayerRepository;
+import com.furbitobet.backend.service.market.OutcomeMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -38,6 +39,9 @@ public class PlayerOddsService {
     @Autowired
     private OutcomeRepository outcomeRepository;
 
+    @Autowired
+    private OutcomeSnapshotService outcomeSnapshotService;
+
     /**
      * Genera todas las cuotas de jugadores para un evento dado.
      * Analiza el nombre del evento para extraer los equipos y busca sus jugadores.
@@ -102,7 +106,7 @@ public class PlayerOddsService {
 
         for (Player player : players) {
             BigDecimal odds = calculateGoalOdds(player);
-            Outcome outcome = createOutcome(event, "Gol de " + player.getName(), odds, "Goleadores");
+            Outcome outcome = createOutcome(event, "Gol de " + player.getName(), odds, "Goleadores", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -117,7 +121,7 @@ public class PlayerOddsService {
 
         for (Player player : players) {
             BigDecimal odds = calculateAssistOdds(player);
-            Outcome outcome = createOutcome(event, "Asistencia de " + player.getName(), odds, "Asistencias");
+            Outcome outcome = createOutcome(event, "Asistencia de " + player.getName(), odds, "Asistencias", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -137,7 +141,7 @@ public class PlayerOddsService {
 
         for (Player player : relevantPlayers) {
             BigDecimal odds = calculateYellowCardOdds(player);
-            Outcome outcome = createOutcome(event, "Tarjeta amarilla para " + player.getName(), odds, "Tarjetas");
+            Outcome outcome = createOutcome(event, "Tarjeta amarilla para " + player.getName(), odds, "Tarjetas", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -157,7 +161,7 @@ public class PlayerOddsService {
 
         for (Player player : relevantPlayers) {
             BigDecimal odds = calculateRedCardOdds(player);
-            Outcome outcome = createOutcome(event, "Tarjeta roja para " + player.getName(), odds, "Tarjetas");
+            Outcome outcome = createOutcome(event, "Tarjeta roja para " + player.getName(), odds, "Tarjetas", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -187,7 +191,7 @@ public class PlayerOddsService {
 
         for (Player player : allTopScorers) {
             BigDecimal odds = calculateFirstScorerOdds(player, allTopScorers);
-            Outcome outcome = createOutcome(event, player.getName() + " primer goleador", odds, "Primer Goleador");
+            Outcome outcome = createOutcome(event, player.getName() + " primer goleador", odds, "Primer Goleador", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -209,7 +213,7 @@ public class PlayerOddsService {
 
         for (Player player : relevantPlayers) {
             BigDecimal odds = calculateGoalAndAssistOdds(player);
-            Outcome outcome = createOutcome(event, player.getName() + " marca y asiste", odds, "Especiales Jugador");
+            Outcome outcome = createOutcome(event, player.getName() + " marca y asiste", odds, "Especiales Jugador", player);
             outcomes.add(outcomeRepository.save(outcome));
         }
 
@@ -460,13 +464,14 @@ public class PlayerOddsService {
     /**
      * Crea una nueva instancia de Outcome.
      */
-    private Outcome createOutcome(Event event, String description, BigDecimal odds, String group) {
+    private Outcome createOutcome(Event event, String description, BigDecimal odds, String group, Player player) {
         Outcome outcome = new Outcome();
         outcome.setEvent(event);
         outcome.setDescription(description);
         outcome.setOdds(odds);
         outcome.setOutcomeGroup(group);
         outcome.setStatus(Outcome.OutcomeStatus.PENDING);
+        OutcomeMetadata.apply(outcome, player.getId());
         return outcome;
     }
 
@@ -487,6 +492,7 @@ public class PlayerOddsService {
                 .filter(o -> o.getDescription().contains(player.getName()))
                 .collect(Collectors.toList());
 
+        java.util.Set<Long> touchedEvents = new java.util.HashSet<>();
         for (Outcome outcome : playerOutcomes) {
             BigDecimal newOdds;
 
@@ -506,11 +512,13 @@ public class PlayerOddsService {
                 continue;
             }
 
-            outcome.setOdds(newOdds);
+            outcome.updateOdds(newOdds);
             outcomeRepository.save(outcome);
+            touchedEvents.add(outcome.getEvent().getId());
             logger.info("Cuotas actualizadas para {}: {} -> {}", 
                     player.getName(), outcome.getDescription(), newOdds);
         }
+        touchedEvents.forEach(outcomeSnapshotService::refreshEvent);
     }
 
     /**
@@ -17,6 +17,9 @@ public class PlayerService {
     @Autowired
     private PlayerOddsService playerOddsService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     public List<Player> getAllPlayers() {
         return playerRepository.findAll();
     }
@@ -26,7 +29,9 @@ public class PlayerService {
     }
 
     public Player createPlayer(Player player) {
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        contentVersionService.bump(ContentVersionService.Resource.PLAYERS);
+        return saved;
     }
 
     public Player updatePlayer(Long id, Player playerDetails) {
@@ -47,6 +52,7 @@ public class PlayerService {
             player.setKeyPasses(playerDetails.getKeyPasses());
             
             Player savedPlayer = playerRepository.save(player);
+            contentVersionService.bump(ContentVersionService.Resource.PLAYERS);
             
             // Recalcular automáticamente las cuotas cuando se actualizan estadísticas
             playerOddsService.recalculatePlayerOdds(id);
@@ -78,6 +84,7 @@ public class PlayerService {
             player.setRedCards(player.getRedCards() + redCards);
             
             Player savedPlayer = playerRepository.save(player);
+            contentVersionService.bump(ContentVersionService.Resource.PLAYERS);
             
             // Recalcular cuotas automáticamente
             playerOddsService.recalculatePlayerOdds(id);
@@ -89,6 +96,7 @@ public class PlayerService {
 
     public void deletePlayer(Long id) {
         playerRepository.deleteById(id);
+        contentVersionService.bump(ContentVersionService.Resource.PLAYERS);
     }
 
     /**
@@ -6,6 +6,7 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -33,6 +34,26 @@ public class ScraperService {
     private List<Map<String, Object>> cachedResults = null;
     private LocalDateTime resultsLastFetch = null;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    /**
+     * Indica si la clasificación en caché aún no ha caducado, es decir, si
+     * getLeagueStandings() la devolverá sin volver a descargarla.
+     */
+    public boolean isStandingsCacheFresh() {
+        return isFresh(standingsLastFetch);
+    }
+
+    public boolean isResultsCacheFresh() {
+        return isFresh(resultsLastFetch);
+    }
+
+    private boolean isFresh(LocalDateTime lastFetch) {
+        return lastFetch != null
+                && Duration.between(lastFetch, LocalDateTime.now()).toMinutes() < CACHE_DURATION_MINUTES;
+    }
+
     public List<Map<String, String>> getLeagueStandings() {
         // Check if cache is valid
         if (cachedStandings != null && standingsLastFetch != null) {
@@ -97,8 +118,12 @@ public class ScraperService {
             }
 
             // Update cache
+            boolean changed = !standings.equals(cachedStandings);
             cachedStandings = standings;
             standingsLastFetch = LocalDateTime.now();
+            if (changed) {
+                contentVersionService.bump(ContentVersionService.Resource.LEAGUE);
+            }
             logger.info("Standings cache updated with {} teams", standings.size());
 
         } catch (IOException e) {
@@ -168,8 +193,12 @@ public class ScraperService {
             }
 
             // Update cache
+            boolean changed = !results.equals(cachedResults);
             cachedResults = results;
             resultsLastFetch = LocalDateTime.now();
+            if (changed) {
+                contentVersionService.bump(ContentVersionService.Resource.LEAGUE);
+            }
             logger.info("Match results cache updated with {} matches", results.size());
 
         } catch (IOException e) {
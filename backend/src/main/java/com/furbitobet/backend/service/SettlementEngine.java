@@ -0,0 +1,106 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.repository.BetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Liquidación de las apuestas de un evento. Las apuestas perdidas se marcan
+ * primero con un único UPDATE (no mueven saldo); las demás se reparten por
+ * usuario y cada partición se liquida como un comando en el carril de
+ * monedero de su usuario, en su propia transacción. Así los abonos nunca se
+ * escriben fuera de los carriles y usuarios distintos se liquidan en
+ * paralelo, tantos como carriles (wallet.lanes).
+ */
+@Service
+public class SettlementEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettlementEngine.class);
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private WalletCommandExecutor walletCommandExecutor;
+
+    // Liquidación por SQL de conjuntos: PERDIDAS con un UPDATE antes de repartir por usuario
+    @Value("${settlement.bulk.enabled:true}")
+    private boolean bulkSettlementEnabled;
+
+    // Per-partition duration metric
+    private final AtomicLong partitionCount = new AtomicLong();
+    private final AtomicLong partitionTotalNanos = new AtomicLong();
+    private final AtomicLong partitionMaxNanos = new AtomicLong();
+    private final AtomicLong partitionFailures = new AtomicLong();
+
+    /**
+     * Liquida las apuestas pendientes del evento partición a partición. No
+     * debe llamarse dentro de una transacción abierta: cada partición hace
+     * commit por separado y tiene que ver los estados de las selecciones.
+     */
+    public void settleEvent(Event event) {
+        long start = System.nanoTime();
+        int lost = bulkSettlementEnabled ? betService.settleLostBets(event.getId()) : 0;
+
+        Map<Long, List<Long>> partitions = new LinkedHashMap<>();
+        for (Object[] row : betRepository.findIdAndUserIdByEventIdAndStatus(event.getId(), Bet.BetStatus.PENDING)) {
+            partitions.computeIfAbsent((Long) row[1], userId -> new ArrayList<>()).add((Long) row[0]);
+        }
+
+        Map<Long, Supplier<Integer>> commands = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<Long>> partition : partitions.entrySet()) {
+            commands.put(partition.getKey(), () -> settlePartition(partition.getKey(), partition.getValue()));
+        }
+
+        // Failed partitions rolled back and their bets stay PENDING; resolving again retries them
+        int settled = 0;
+        for (Integer count : walletCommandExecutor.executeEach(commands).values()) {
+            settled += count;
+        }
+
+        logger.info("Settled event {} in {} ms: {} lost in bulk, {} bets across {} user partitions", event.getId(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lost, settled, partitions.size());
+    }
+
+    private int settlePartition(Long userId, List<Long> betIds) {
+        long start = System.nanoTime();
+        try {
+            return betService.settleUserPartition(userId, betIds);
+        } catch (RuntimeException e) {
+            partitionFailures.incrementAndGet();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            partitionCount.incrementAndGet();
+            partitionTotalNanos.addAndGet(elapsed);
+            partitionMaxNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public Map<String, Object> getPartitionStats() {
+        long count = partitionCount.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("partitions", count);
+        stats.put("failures", partitionFailures.get());
+        stats.put("avgPartitionMs", count == 0 ? 0.0 : partitionTotalNanos.get() / (double) count / 1_000_000);
+        stats.put("maxPartitionMs", partitionMaxNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
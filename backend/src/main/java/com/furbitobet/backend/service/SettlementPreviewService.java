@@ -0,0 +1,186 @@
+package com.furbitobet.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.repository.BetRepository;
+import com.furbitobet.backend.repository.EventRepository;
+import com.furbitobet.backend.repository.OutcomeRepository;
+import com.furbitobet.backend.service.market.MarketResolverRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Simulación (dry-run) de la resolución de un evento. Evalúa las reglas de
+ * mercado para un marcador dado y calcula en memoria cómo quedaría cada
+ * apuesta pendiente, sin escribir nada en base de datos. El resultado se
+ * escribe como NDJSON: una línea por apuesta y una línea final de resumen.
+ */
+@Service
+public class SettlementPreviewService {
+
+    // Tamaño de lote al cargar apuestas y número de mayores pagos en el resumen
+    private static final int BATCH_SIZE = 200;
+    private static final int TOP_LIABILITIES = 10;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private OutcomeRepository outcomeRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private MarketResolverRegistry marketResolverRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void streamPreview(Long eventId, int homeGoals, int awayGoals, OutputStream out) throws IOException {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+
+        // Projected status of every outcome of the event for this score
+        Map<Long, Outcome.OutcomeStatus> projected = marketResolverRegistry.resolveAll(event,
+                outcomeRepository.findByEventId(eventId), homeGoals, awayGoals);
+
+        int bets = 0;
+        int winningBets = 0;
+        int lostBets = 0;
+        int voidBets = 0;
+        int stillPending = 0;
+        BigDecimal totalStake = BigDecimal.ZERO;
+        BigDecimal totalPayout = BigDecimal.ZERO;
+        PriorityQueue<Map<String, Object>> topLiabilities = new PriorityQueue<>(
+                Comparator.comparing(line -> (BigDecimal) line.get("payout")));
+
+        List<Long> betIds = betRepository.findIdsByEventIdAndStatus(eventId, Bet.BetStatus.PENDING);
+        for (int from = 0; from < betIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = betIds.subList(from, Math.min(from + BATCH_SIZE, betIds.size()));
+            // Loaded explicitly: the preview streams after the request's session has closed
+            Map<Long, Map<Long, BigDecimal>> placedOdds = new HashMap<>();
+            for (Object[] row : betRepository.findPlacedOddsByIdIn(batch)) {
+                placedOdds.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((Long) row[1], (BigDecimal) row[2]);
+            }
+            for (Bet bet : betRepository.findAllWithOutcomesByIdIn(batch)) {
+                Map<String, Object> line = projectBet(bet, projected, placedOdds.getOrDefault(bet.getId(), Map.of()));
+                writeLine(out, line);
+
+                bets++;
+                totalStake = totalStake.add(bet.getAmount());
+                BigDecimal payout = (BigDecimal) line.get("payout");
+                totalPayout = totalPayout.add(payout);
+                switch ((Bet.BetStatus) line.get("projectedStatus")) {
+                    case WON:
+                        winningBets++;
+                        break;
+                    case LOST:
+                        lostBets++;
+                        break;
+                    case VOID:
+                        voidBets++;
+                        break;
+                    default:
+                        stillPending++;
+                }
+
+                if (payout.signum() > 0) {
+                    topLiabilities.add(line);
+                    if (topLiabilities.size() > TOP_LIABILITIES) {
+                        topLiabilities.poll();
+                    }
+                }
+            }
+            out.flush();
+        }
+
+        List<Map<String, Object>> top = new ArrayList<>(topLiabilities);
+        top.sort(Comparator.comparing((Map<String, Object> line) -> (BigDecimal) line.get("payout")).reversed());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("eventId", eventId);
+        summary.put("homeGoals", homeGoals);
+        summary.put("awayGoals", awayGoals);
+        summary.put("bets", bets);
+        summary.put("winningBets", winningBets);
+        summary.put("lostBets", lostBets);
+        summary.put("voidBets", voidBets);
+        summary.put("stillPending", stillPending);
+        summary.put("totalStake", totalStake);
+        summary.put("totalPayout", totalPayout);
+        summary.put("topLiabilities", top);
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    /**
+     * Mismas reglas que BetService.settleUserPartition, usando el estado proyectado para
+     * las selecciones de este evento y el estado actual para las demás. Paga
+     * con la cuota de colocación y, en apuestas antiguas, con la actual.
+     */
+    private Map<String, Object> projectBet(Bet bet, Map<Long, Outcome.OutcomeStatus> projected,
+            Map<Long, BigDecimal> placedOdds) {
+        boolean anyPending = false;
+        boolean anyLost = false;
+        boolean allVoid = true;
+        BigDecimal totalOdds = BigDecimal.ONE;
+
+        for (Outcome outcome : bet.getOutcomes()) {
+            Outcome.OutcomeStatus status = projected.getOrDefault(outcome.getId(), outcome.getStatus());
+            if (status == Outcome.OutcomeStatus.PENDING) {
+                anyPending = true;
+            } else if (status == Outcome.OutcomeStatus.LOST) {
+                anyLost = true;
+            }
+            if (status != Outcome.OutcomeStatus.VOID) {
+                allVoid = false;
+            }
+            if (status == Outcome.OutcomeStatus.WON) {
+                totalOdds = totalOdds.multiply(placedOdds.getOrDefault(outcome.getId(), outcome.getOdds()));
+            }
+        }
+
+        Bet.BetStatus status;
+        BigDecimal payout = BigDecimal.ZERO;
+        if (anyLost) {
+            status = Bet.BetStatus.LOST;
+        } else if (anyPending) {
+            status = Bet.BetStatus.PENDING;
+        } else if (allVoid) {
+            status = Bet.BetStatus.VOID;
+            payout = bet.getAmount();
+        } else {
+            status = Bet.BetStatus.WON;
+            payout = bet.getAmount().multiply(totalOdds);
+        }
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "bet");
+        line.put("betId", bet.getId());
+        line.put("username", bet.getUser().getUsername());
+        line.put("amount", bet.getAmount());
+        line.put("projectedStatus", status);
+        line.put("payout", payout);
+        return line;
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,268 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.model.WalletLedgerEntry;
+import com.furbitobet.backend.repository.BetRepository;
+import com.furbitobet.backend.repository.OutcomeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Re-evalúa apuestas cuando cambia el estado de una o varias selecciones.
+ * Solo toca las apuestas que contienen esas selecciones (vía bet_outcomes),
+ * revierte el pago anterior antes de aplicar el nuevo resultado y registra la
+ * suma de los ajustes de cada usuario como un único movimiento
+ * SETTLEMENT_CORRECTION del ledger.
+ *
+ * Los nuevos estados se confirman primero en su propia transacción; después
+ * las apuestas se re-evalúan usuario a usuario en los carriles de monedero,
+ * que son los únicos que escriben saldo. Si un usuario falla, repetir la
+ * resolución lo reintenta sin duplicar ajustes: cada apuesta se compara con
+ * lo que ya tiene abonado.
+ */
+@Service
+public class SettlementService {
+
+    // Tamaño de lote al cargar apuestas con sus selecciones
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private OutcomeRepository outcomeRepository;
+
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
+    @Autowired
+    private WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private ExposureService exposureService;
+
+    @Autowired
+    private CashOutService cashOutService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public void settleOutcome(Long outcomeId, Outcome.OutcomeStatus status) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            Outcome outcome = outcomeRepository.findById(outcomeId)
+                    .orElseThrow(() -> new RuntimeException("Outcome not found"));
+            outcome.setStatus(status);
+            outcomeRepository.save(outcome);
+            cashOutService.onOutcomesSettled(Map.of(outcomeId, status));
+            contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        });
+
+        reevaluateBets(List.of(outcomeId));
+    }
+
+    /**
+     * Aplica varios cambios de estado de selecciones de un evento en una sola
+     * transacción y después re-evalúa cada apuesta afectada una única vez
+     * aunque contenga varias de las selecciones modificadas.
+     *
+     * @return número de apuestas re-evaluadas
+     */
+    public int resolveOutcomes(Long eventId, Map<Long, Outcome.OutcomeStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("No outcome statuses provided");
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            List<Outcome> outcomes = outcomeRepository.findAllById(statuses.keySet());
+            if (outcomes.size() != statuses.size()) {
+                throw new RuntimeException("Outcome not found");
+            }
+
+            for (Outcome outcome : outcomes) {
+                if (outcome.getEvent() == null || !outcome.getEvent().getId().equals(eventId)) {
+                    throw new RuntimeException(
+                            "Outcome " + outcome.getId() + " does not belong to event " + eventId);
+                }
+                Outcome.OutcomeStatus status = statuses.get(outcome.getId());
+                if (status == null) {
+                    throw new IllegalArgumentException("Missing status for outcome " + outcome.getId());
+                }
+                outcome.setStatus(status);
+            }
+            outcomeRepository.saveAll(outcomes);
+            cashOutService.onOutcomesSettled(statuses);
+            contentVersionService.bump(ContentVersionService.Resource.EVENTS);
+        });
+
+        return reevaluateBets(statuses.keySet());
+    }
+
+    /**
+     * Re-evalúa las apuestas que contienen alguna de las selecciones, cada
+     * usuario en su carril. No debe llamarse dentro de una transacción
+     * abierta: los carriles tienen que ver los estados ya confirmados.
+     *
+     * @return número de apuestas re-evaluadas
+     */
+    public int reevaluateBets(Collection<Long> outcomeIds) {
+        Map<Long, List<Long>> partitions = new LinkedHashMap<>();
+        List<Object[]> rows = betRepository.findIdAndUserIdByOutcomeIdIn(outcomeIds);
+        for (Object[] row : rows) {
+            partitions.computeIfAbsent((Long) row[1], userId -> new ArrayList<>()).add((Long) row[0]);
+        }
+
+        Map<Long, Supplier<Void>> commands = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<Long>> partition : partitions.entrySet()) {
+            commands.put(partition.getKey(), () -> {
+                reevaluateUserBets(partition.getValue());
+                return null;
+            });
+        }
+        walletCommandExecutor.executeEach(commands);
+        return rows.size();
+    }
+
+    // Runs on the user's wallet lane, inside the lane's transaction
+    private void reevaluateUserBets(List<Long> betIds) {
+        Map<Long, BigDecimal> deltas = new LinkedHashMap<>();
+        Map<Long, Integer> correctedBets = new HashMap<>();
+        Map<Long, Long> lastBetIds = new HashMap<>();
+        List<Long> reopened = new ArrayList<>();
+        List<Long> closed = new ArrayList<>();
+
+        for (int from = 0; from < betIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = betIds.subList(from, Math.min(from + BATCH_SIZE, betIds.size()));
+            for (Bet bet : betRepository.findAllWithOutcomesByIdIn(batch)) {
+                if (bet.getStatus() == Bet.BetStatus.CASHED_OUT) {
+                    // Already paid out at the agreed price; later results don't change it
+                    continue;
+                }
+                Bet.BetStatus oldStatus = bet.getStatus();
+                boolean wasPending = oldStatus == Bet.BetStatus.PENDING;
+                BigDecimal delta = reevaluate(bet);
+                boolean isPending = bet.getStatus() == Bet.BetStatus.PENDING;
+                if (bet.getStatus() != oldStatus) {
+                    liveUpdateService.publishBet(bet.getUser().getId(), bet.getId(), bet.getStatus(),
+                            bet.getWinnings());
+                }
+                if (wasPending && !isPending) {
+                    closed.add(bet.getId());
+                } else if (!wasPending && isPending) {
+                    reopened.add(bet.getId());
+                }
+                if (delta.signum() != 0) {
+                    Long userId = bet.getUser().getId();
+                    deltas.merge(userId, delta, BigDecimal::add);
+                    correctedBets.merge(userId, 1, Integer::sum);
+                    lastBetIds.put(userId, bet.getId());
+                }
+            }
+        }
+
+        // One ledger row per user; the bet id is kept when a single bet was corrected
+        List<WalletLedgerEntry> corrections = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+            if (delta.getValue().signum() == 0) {
+                continue;
+            }
+            int count = correctedBets.get(delta.getKey());
+            corrections.add(WalletLedgerService.entry(delta.getKey(), delta.getValue(),
+                    WalletLedgerEntry.EntryType.SETTLEMENT_CORRECTION,
+                    count == 1 ? lastBetIds.get(delta.getKey()) : null,
+                    "Correction of " + count + " bet(s)"));
+        }
+        walletLedgerService.record(corrections);
+
+        exposureService.removeBets(closed);
+        exposureService.addBets(reopened);
+        cashOutService.untrack(closed);
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
+        cashOutService.track(reopened);
+    }
+
+    /**
+     * Recalcula el estado de la apuesta y devuelve el ajuste de saldo que
+     * corresponde al usuario (nuevo pago menos el pago ya abonado).
+     */
+    private BigDecimal reevaluate(Bet bet) {
+        // Store old bet status to handle balance adjustments
+        Bet.BetStatus oldBetStatus = bet.getStatus();
+        BigDecimal oldWinnings = bet.getWinnings() != null ? bet.getWinnings() : BigDecimal.ZERO;
+
+        // Re-evaluate bet status
+        boolean allResolved = true;
+        boolean anyLost = false;
+        BigDecimal totalOdds = BigDecimal.ONE;
+        boolean anyVoid = false;
+
+        for (Outcome o : bet.getOutcomes()) {
+            if (o.getStatus() == Outcome.OutcomeStatus.PENDING) {
+                allResolved = false;
+            }
+            if (o.getStatus() == Outcome.OutcomeStatus.LOST) {
+                anyLost = true;
+            }
+            if (o.getStatus() == Outcome.OutcomeStatus.WON) {
+                totalOdds = totalOdds.multiply(bet.oddsFor(o));
+            }
+            if (o.getStatus() == Outcome.OutcomeStatus.VOID) {
+                anyVoid = true;
+            }
+        }
+
+        BigDecimal delta = BigDecimal.ZERO;
+
+        // Revert previous winnings if bet was already settled
+        if (oldBetStatus == Bet.BetStatus.WON && oldWinnings.compareTo(BigDecimal.ZERO) > 0) {
+            delta = delta.subtract(oldWinnings);
+        } else if (oldBetStatus == Bet.BetStatus.VOID && bet.getAmount() != null) {
+            // Revert refund if bet was voided
+            delta = delta.subtract(bet.getAmount());
+        }
+
+        // Apply new bet status
+        if (anyLost) {
+            bet.setStatus(Bet.BetStatus.LOST);
+            bet.setWinnings(BigDecimal.ZERO);
+        } else if (!allResolved) {
+            bet.setStatus(Bet.BetStatus.PENDING);
+            bet.setWinnings(null);
+        } else {
+            // All resolved and none lost
+            if (anyVoid && totalOdds.compareTo(BigDecimal.ONE) == 0
+                    && bet.getOutcomes().stream().allMatch(o -> o.getStatus() == Outcome.OutcomeStatus.VOID)) {
+                // All void - refund
+                bet.setStatus(Bet.BetStatus.VOID);
+                bet.setWinnings(bet.getAmount());
+                delta = delta.add(bet.getAmount());
+            } else {
+                // Won
+                bet.setStatus(Bet.BetStatus.WON);
+                BigDecimal winnings = bet.getAmount().multiply(totalOdds);
+                bet.setWinnings(winnings);
+                delta = delta.add(winnings);
+            }
+        }
+
+        betRepository.save(bet);
+        return delta;
+    }
+}
@@ -21,6 +21,15 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
+    @Autowired
+    private WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     public User createUser(String username, String password, String email, User.Role role) {
         User user = new User();
         user.setUsername(username);
@@ -28,17 +37,43 @@ public class UserService implements UserDetailsService {
         user.setEmail(email);
         user.setRole(role);
         user.setEnabled(true); // Default users created by admin/init are enabled
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
+        return saved;
     }
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * Suma amount (o lo resta, si es negativo) al saldo, en el carril del
+     * usuario.
+     */
     public User updateBalance(Long userId, BigDecimal amount) {
-        User user = userRepository.findById(userId).orElseThrow();
-        user.setBalance(user.getBalance().add(amount));
-        return userRepository.save(user);
+        return walletCommandExecutor.execute(userId, () -> {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found");
+            }
+            walletLedgerService.credit(userId, amount,
+                    com.furbitobet.backend.model.WalletLedgerEntry.EntryType.ADMIN_ADJUSTMENT, null, null);
+            return getUserById(userId);
+        });
+    }
+
+    /**
+     * Fija el saldo a un valor exacto registrando la diferencia en el ledger.
+     * El saldo se lee dentro del carril del usuario, así que ningún cargo
+     * puede colarse entre la lectura y el ajuste.
+     */
+    public User setBalance(Long userId, BigDecimal target) {
+        return walletCommandExecutor.execute(userId, () -> {
+            BigDecimal available = walletLedgerService.getAvailable(userId);
+            walletLedgerService.credit(userId, target.subtract(available),
+                    com.furbitobet.backend.model.WalletLedgerEntry.EntryType.ADMIN_ADJUSTMENT, null,
+                    "Set balance to " + target);
+            return getUserById(userId);
+        });
     }
 
     public java.util.List<User> getAllUsers() {
@@ -53,7 +88,7 @@ public class UserService implements UserDetailsService {
     private com.furbitobet.backend.repository.BetRepository betRepository;
 
     public java.util.List<User> getRanking() {
-        java.util.List<User> users = userRepository.findByRoleNotOrderByBalanceDesc(User.Role.ADMIN);
+        java.util.List<User> users = userRepository.findRankingExcludingRole(User.Role.ADMIN);
         java.util.List<Object[]> stats = betRepository.findNetProfitStats();
 
         java.util.Map<Long, BigDecimal> profits = new java.util.HashMap<>();
@@ -87,6 +122,7 @@ public class UserService implements UserDetailsService {
         betRepository.deleteAll(userBets);
 
         userRepository.deleteById(id);
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
     }
 
     public void updatePassword(Long userId, String newPassword) {
@@ -205,5 +241,6 @@ public class UserService implements UserDetailsService {
         user.setConfirmationToken(null);
         user.setTokenExpiry(null);
         userRepository.save(user);
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
     }
 }
@@ -0,0 +1,385 @@
+package com.furbitobet.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor de comandos de monedero. Cada usuario se asigna por hash a uno de
+ * wallet.lanes carriles de un solo hilo, así que todas las operaciones que
+ * mueven el saldo de un usuario se ejecutan en serie y sin bloqueos en base de
+ * datos, mientras que usuarios distintos avanzan en paralelo.
+ *
+ * Los carriles son la única vía de escritura del saldo: las operaciones de un
+ * usuario usan execute() y las que abonan o corrigen a muchos usuarios a la
+ * vez (liquidaciones, re-evaluaciones, reembolsos, bonos) se reparten por
+ * usuario con executeEach(). Por eso los cargos no necesitan ningún bloqueo
+ * en base de datos para comprobar el saldo.
+ *
+ * Cada carril vacía su cola por lotes de hasta wallet.lanes.batch-size
+ * comandos y los confirma en una única transacción. Si un comando falla, su
+ * error es su resultado y el resto del lote se repite sin él en una nueva
+ * transacción; solo un fallo al confirmar, que no se puede atribuir a ningún
+ * comando, hace repetir el lote comando a comando. Los rechazos habituales,
+ * como la falta de saldo, se comprueban antes de escribir y se devuelven como
+ * respuesta sin lanzar, así que no deshacen el lote. El llamante recibe el
+ * resultado cuando su transacción ya está confirmada.
+ *
+ * Si el llamante deja de esperar (wallet.command-timeout-ms) y su comando aún
+ * no ha empezado, se cancela y no se ejecutará, así que un reintento tras el
+ * error no duplica la operación. Si ya se está ejecutando, se espera a que
+ * termine.
+ */
+@Service
+public class WalletCommandExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletCommandExecutor.class);
+
+    // Lane index of the current thread, null outside the lanes
+    private static final ThreadLocal<Integer> CURRENT_LANE = new ThreadLocal<>();
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${wallet.lanes:8}")
+    private int laneCount;
+
+    @Value("${wallet.lanes.batch-size:32}")
+    private int batchSize;
+
+    @Value("${wallet.lanes.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${wallet.command-timeout-ms:10000}")
+    private long commandTimeoutMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Lane[] lanes;
+
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchRetries = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    // Time commands spend queued before their lane picks them up
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+            lanes[i].thread.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    /**
+     * Ejecuta command en el carril del usuario y espera su resultado. Las
+     * excepciones del comando se relanzan tal cual al llamante.
+     */
+    public <T> T execute(Long userId, Supplier<T> command) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        // Already on a lane (nested command): run inline instead of waiting on a
+        // queue that may be blocked behind this very thread
+        if (CURRENT_LANE.get() != null) {
+            return command.get();
+        }
+
+        Lane lane = lane(userId);
+        Command<T> task = new Command<>(command);
+        if (!lane.queue.offer(task)) {
+            throw new RuntimeException("Wallet is busy, please try again");
+        }
+        try {
+            return task.future.get(commandTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            if (task.cancel()) {
+                lane.queue.remove(task);
+                cancelled.incrementAndGet();
+                throw new RuntimeException("Wallet operation timed out and was not applied, please try again");
+            }
+            // Already running: its transaction decides the outcome, so report that
+            // instead of an error the caller can't tell apart from a failure
+            return awaitRunning(task);
+        } catch (InterruptedException e) {
+            // Same as a timeout: don't leave a command behind that nobody waits for
+            if (task.cancel()) {
+                lane.queue.remove(task);
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for wallet operation");
+        }
+    }
+
+    /**
+     * Ejecuta un comando por usuario, cada uno en el carril de su usuario, y
+     * espera a que terminen todos. Usuarios de carriles distintos avanzan en
+     * paralelo y cada uno se confirma por separado, así que un fallo solo deja
+     * sin aplicar los cambios de ese usuario. No se cancela por tiempo: si una
+     * cola está llena se espera a que haya hueco.
+     *
+     * No debe llamarse dentro de una transacción abierta, porque los carriles
+     * no verían sus cambios, ni desde un carril, porque los comandos de otros
+     * usuarios no pueden ejecutarse en él.
+     *
+     * @return resultado por usuario; si alguno falla, lanza una excepción
+     *         cuando ya han terminado todos
+     */
+    public <T> Map<Long, T> executeEach(Map<Long, Supplier<T>> commands) {
+        if (CURRENT_LANE.get() != null) {
+            throw new IllegalStateException("Multi-user wallet operations can't run on a wallet lane");
+        }
+
+        Map<Long, Command<T>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<Long, Supplier<T>> entry : commands.entrySet()) {
+            Command<T> task = new Command<>(entry.getValue());
+            try {
+                lane(entry.getKey()).queue.put(task);
+            } catch (InterruptedException e) {
+                // Commands already queued still run; the caller can retry the rest
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while queueing wallet operations");
+            }
+            tasks.put(entry.getKey(), task);
+        }
+
+        Map<Long, T> results = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        int failed = 0;
+        for (Map.Entry<Long, Command<T>> entry : tasks.entrySet()) {
+            try {
+                results.put(entry.getKey(), awaitRunning(entry.getValue()));
+            } catch (RuntimeException e) {
+                logger.error("Wallet operation failed for user {}: {}", entry.getKey(), e.getMessage());
+                failed++;
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new RuntimeException(failed + " of " + tasks.size() + " wallet operations failed: "
+                    + failure.getMessage(), failure);
+        }
+        return results;
+    }
+
+    private Lane lane(Long userId) {
+        return lanes[Math.floorMod(userId.hashCode(), lanes.length)];
+    }
+
+    private static <T> T awaitRunning(Command<T> task) {
+        try {
+            return task.future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for wallet operation");
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RuntimeException(cause);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        int queued = 0;
+        for (Lane lane : lanes) {
+            queued += lane.queue.size();
+        }
+        stats.put("lanes", lanes.length);
+        stats.put("queued", queued);
+        stats.put("commands", commands.get());
+        stats.put("batches", batches.get());
+        stats.put("batchRetries", batchRetries.get());
+        stats.put("cancelled", cancelled.get());
+        stats.put("queueWaitMs", queueWaitNanos.get() / 1_000_000);
+        stats.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1_000_000);
+        return stats;
+    }
+
+    private final class Lane implements Runnable {
+        private final int index;
+        private final BlockingQueue<Command<?>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        private Lane(int index) {
+            this.index = index;
+            this.thread = new Thread(this, "wallet-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            CURRENT_LANE.set(index);
+            List<Command<?>> batch = new ArrayList<>();
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    runBatch(batch);
+                } catch (Throwable e) {
+                    // Catch Errors too: if this thread dies, every user on the lane is stuck
+                    logger.error("Wallet lane {} failed to run a batch", index, e);
+                    for (Command<?> command : batch) {
+                        command.future.completeExceptionally(e);
+                    }
+                }
+                batch.clear();
+            }
+        }
+
+        private void runBatch(List<Command<?>> queued) {
+            long now = System.nanoTime();
+            // Commands whose caller gave up before they started are skipped
+            List<Command<?>> batch = new ArrayList<>(queued.size());
+            for (Command<?> command : queued) {
+                if (command.start()) {
+                    batch.add(command);
+                    long waited = now - command.enqueuedAt;
+                    queueWaitNanos.addAndGet(waited);
+                    maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            commands.addAndGet(batch.size());
+            batches.incrementAndGet();
+
+            // Each pass either commits everything left or drops the command that failed
+            while (batch.size() > 1) {
+                Object[] results = new Object[batch.size()];
+                RuntimeException[] failure = new RuntimeException[1];
+                int[] failedAt = { -1 };
+                boolean committed;
+                try {
+                    committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                        for (int i = 0; i < batch.size(); i++) {
+                            try {
+                                results[i] = batch.get(i).action.get();
+                            } catch (RuntimeException e) {
+                                failure[0] = e;
+                                failedAt[0] = i;
+                                status.setRollbackOnly();
+                                return false;
+                            }
+                        }
+                        return true;
+                    }));
+                } catch (RuntimeException e) {
+                    // Failed at commit time (e.g. a constraint checked on flush)
+                    committed = false;
+                }
+
+                if (committed) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).complete(results[i]);
+                    }
+                    return;
+                }
+
+                batchRetries.incrementAndGet();
+                if (failedAt[0] < 0) {
+                    // No single command to blame: give each one its own transaction
+                    for (Command<?> command : batch) {
+                        runAlone(command);
+                    }
+                    return;
+                }
+                // The failing command saw exactly the state it would see on its own
+                // after the ones before it, so its error stands; the rest run again
+                batch.remove(failedAt[0]).future.completeExceptionally(failure[0]);
+            }
+            if (!batch.isEmpty()) {
+                runAlone(batch.get(0));
+            }
+        }
+
+        private void runAlone(Command<?> command) {
+            try {
+                Object result = transactionTemplate.execute(status -> command.action.get());
+                command.complete(result);
+            } catch (RuntimeException | Error e) {
+                command.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Command<T> {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLED = 2;
+
+        private final Supplier<T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        // Lane side: false if the caller already cancelled it
+        private boolean start() {
+            return state.compareAndSet(QUEUED, RUNNING);
+        }
+
+        // Caller side: false if the lane already started it
+        private boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
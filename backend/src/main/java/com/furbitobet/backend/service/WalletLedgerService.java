@@ -0,0 +1,163 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.WalletLedgerEntry;
+import com.furbitobet.backend.repository.WalletLedgerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Único punto de escritura del saldo. Cada cambio es una fila nueva en
+ * wallet_ledger en lugar de un UPDATE sobre users, así que los abonos
+ * concurrentes no compiten por la misma fila. Todas las escrituras de un
+ * usuario se hacen desde su carril de WalletCommandExecutor, así que un cargo
+ * puede leer el saldo disponible y registrarse sin bloqueos: nadie más escribe
+ * en ese monedero entre medias.
+ *
+ * Las escrituras vacían y limpian el contexto de persistencia, igual que hacía
+ * el antiguo UPDATE sobre users, para que las lecturas posteriores de
+ * User.getBalance() en la misma transacción vean el saldo nuevo.
+ */
+@Service
+public class WalletLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletLedgerService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO wallet_ledger "
+            + "(user_id, amount, entry_type, bet_id, description, compacted, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, false, ?)";
+
+    @Autowired
+    private WalletLedgerRepository walletLedgerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    /**
+     * Abona (o, con importe negativo, ajusta sin comprobar saldo) el monedero.
+     */
+    @Transactional
+    public void credit(Long userId, BigDecimal amount, WalletLedgerEntry.EntryType type, Long betId,
+            String description) {
+        if (amount.signum() != 0) {
+            record(List.of(entry(userId, amount, type, betId, description)));
+        }
+    }
+
+    /**
+     * Carga amount si el saldo disponible lo cubre. Debe ejecutarse en el
+     * carril del usuario.
+     *
+     * @return false si no hay saldo suficiente
+     */
+    @Transactional
+    public boolean debit(Long userId, BigDecimal amount, WalletLedgerEntry.EntryType type, Long betId,
+            String description) {
+        if (!covers(userId, amount)) {
+            return false;
+        }
+        record(List.of(entry(userId, amount.negate(), type, betId, description)));
+        return true;
+    }
+
+    /**
+     * Saldo disponible: el compactado en users.balance más los movimientos
+     * pendientes, incluidos los de la transacción en curso. Solo es estable
+     * dentro del carril del usuario.
+     */
+    public BigDecimal getAvailable(Long userId) {
+        BigDecimal available = walletLedgerRepository.findAvailableBalance(userId);
+        if (available == null) {
+            throw new RuntimeException("User not found");
+        }
+        return available;
+    }
+
+    /**
+     * Comprueba el saldo antes de escribir nada, para poder rechazar la
+     * operación sin deshacer el lote del carril.
+     */
+    public boolean covers(Long userId, BigDecimal amount) {
+        return getAvailable(userId).compareTo(amount) >= 0;
+    }
+
+    /**
+     * Inserta los movimientos con batching JDBC.
+     */
+    @Transactional
+    public void record(Collection<WalletLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Object[]> rows = new ArrayList<>();
+        for (WalletLedgerEntry entry : entries) {
+            rows.add(new Object[] { entry.getUserId(), entry.getAmount(), entry.getEntryType().name(),
+                    entry.getBetId(), entry.getDescription(), Timestamp.valueOf(entry.getCreatedAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        entityManager.clear();
+        contentVersionService.bump(ContentVersionService.Resource.RANKING);
+    }
+
+    /**
+     * Un abono por cada apuesta ganada o anulada de la lista, por su importe
+     * de winnings.
+     */
+    @Transactional
+    public void creditWinnings(Collection<Long> betIds) {
+        if (!betIds.isEmpty()) {
+            walletLedgerRepository.creditWinningsForBets(betIds);
+            contentVersionService.bump(ContentVersionService.Resource.RANKING);
+        }
+    }
+
+    public List<WalletLedgerEntry> getEntries(Long userId, int limit) {
+        return walletLedgerRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Pliega los movimientos pendientes en users.balance. Los movimientos que
+     * todavía no han hecho commit no se ven y quedan para la siguiente pasada.
+     */
+    @Scheduled(fixedDelayString = "${wallet.ledger.compaction-interval-ms:60000}")
+    @Transactional
+    public void compact() {
+        int users = walletLedgerRepository.compact();
+        if (users > 0) {
+            logger.info("Compacted wallet ledger into {} user balances", users);
+        }
+    }
+
+    public static WalletLedgerEntry entry(Long userId, BigDecimal amount, WalletLedgerEntry.EntryType type,
+            Long betId, String description) {
+        WalletLedgerEntry entry = new WalletLedgerEntry();
+        entry.setUserId(userId);
+        entry.setAmount(amount);
+        entry.setEntryType(type);
+        entry.setBetId(betId);
+        entry.setDescription(description);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+}
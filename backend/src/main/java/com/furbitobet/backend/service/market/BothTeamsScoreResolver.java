@@ -0,0 +1,27 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+// Ambos Marcan
+@Component
+public class BothTeamsScoreResolver implements MarketResolver {
+
+    @Override
+    public MarketType getType() {
+        return MarketType.BOTH_TEAMS_SCORE;
+    }
+
+    @Override
+    public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+        boolean bothScored = result.getHomeGoals() > 0 && result.getAwayGoals() > 0;
+        switch (outcome.getDescription()) {
+            case "Sí":
+                return MarketResolver.wonIf(bothScored);
+            case "No":
+                return MarketResolver.wonIf(!bothScored);
+            default:
+                return Outcome.OutcomeStatus.LOST;
+        }
+    }
+}
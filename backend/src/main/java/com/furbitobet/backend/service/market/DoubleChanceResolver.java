@@ -0,0 +1,30 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+// Doble Oportunidad
+@Component
+public class DoubleChanceResolver implements MarketResolver {
+
+    @Override
+    public MarketType getType() {
+        return MarketType.DOUBLE_CHANCE;
+    }
+
+    @Override
+    public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+        int home = result.getHomeGoals();
+        int away = result.getAwayGoals();
+        switch (outcome.getDescription()) {
+            case "1X":
+                return MarketResolver.wonIf(home >= away);
+            case "X2":
+                return MarketResolver.wonIf(away >= home);
+            case "12":
+                return MarketResolver.wonIf(home != away);
+            default:
+                return Outcome.OutcomeStatus.LOST;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+// Apuesta sin Empate: el empate anula la selección
+@Component
+public class DrawNoBetResolver implements MarketResolver {
+
+    @Override
+    public MarketType getType() {
+        return MarketType.DRAW_NO_BET;
+    }
+
+    @Override
+    public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+        int home = result.getHomeGoals();
+        int away = result.getAwayGoals();
+        if (home == away) {
+            return Outcome.OutcomeStatus.VOID;
+        }
+        String desc = outcome.getDescription();
+        if (desc.startsWith("1")) {
+            return MarketResolver.wonIf(home > away);
+        }
+        if (desc.startsWith("2")) {
+            return MarketResolver.wonIf(away > home);
+        }
+        return Outcome.OutcomeStatus.LOST;
+    }
+}
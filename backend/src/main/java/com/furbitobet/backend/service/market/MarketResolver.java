@@ -0,0 +1,39 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+
+import java.math.BigDecimal;
+
+/**
+ * Reglas de resolución de un tipo de mercado. Cada implementación es un bean
+ * de Spring y MarketResolverRegistry la registra automáticamente, así que un
+ * mercado nuevo solo necesita su propia clase.
+ */
+public interface MarketResolver {
+
+    MarketType getType();
+
+    Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result);
+
+    /**
+     * Línea de un mercado de más/menos (lineValue, rellenado por OutcomeMetadata).
+     */
+    static BigDecimal line(Outcome outcome) {
+        if (outcome.getLineValue() == null) {
+            throw new IllegalArgumentException("Outcome " + outcome.getId() + " has no line: " + outcome.getDescription());
+        }
+        return outcome.getLineValue();
+    }
+
+    static Outcome.OutcomeStatus over(int goals, Outcome outcome) {
+        return wonIf(BigDecimal.valueOf(goals).compareTo(line(outcome)) > 0);
+    }
+
+    static Outcome.OutcomeStatus under(int goals, Outcome outcome) {
+        return wonIf(BigDecimal.valueOf(goals).compareTo(line(outcome)) < 0);
+    }
+
+    static Outcome.OutcomeStatus wonIf(boolean won) {
+        return won ? Outcome.OutcomeStatus.WON : Outcome.OutcomeStatus.LOST;
+    }
+}
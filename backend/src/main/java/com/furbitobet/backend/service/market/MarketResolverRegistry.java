@@ -0,0 +1,53 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de MarketResolver por tipo de mercado. Resuelve todas las
+ * selecciones de un evento en una pasada; los mercados sin resolver
+ * registrado (p.ej. mercados de jugador) quedan como LOST, igual que antes.
+ */
+@Component
+public class MarketResolverRegistry {
+
+    private final Map<MarketType, MarketResolver> resolvers = new EnumMap<>(MarketType.class);
+
+    public MarketResolverRegistry(List<MarketResolver> resolverBeans) {
+        for (MarketResolver resolver : resolverBeans) {
+            MarketResolver previous = resolvers.put(resolver.getType(), resolver);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate MarketResolver for " + resolver.getType() + ": "
+                        + previous.getClass().getName() + " and " + resolver.getClass().getName());
+            }
+        }
+    }
+
+    public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+        MarketResolver resolver = resolvers.get(MarketType.of(outcome));
+        if (resolver == null) {
+            return Outcome.OutcomeStatus.LOST;
+        }
+        return resolver.resolve(outcome, result);
+    }
+
+    /**
+     * Estado resultante de cada selección del evento para el marcador dado,
+     * indexado por id de selección. No modifica las selecciones.
+     */
+    public Map<Long, Outcome.OutcomeStatus> resolveAll(Event event, List<Outcome> outcomes, int homeGoals,
+            int awayGoals) {
+        MatchResult result = new MatchResult(event, homeGoals, awayGoals);
+        Map<Long, Outcome.OutcomeStatus> statuses = new HashMap<>();
+        for (Outcome outcome : outcomes) {
+            statuses.put(outcome.getId(), resolve(outcome, result));
+        }
+        return statuses;
+    }
+}
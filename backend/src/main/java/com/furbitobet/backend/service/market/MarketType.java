@@ -0,0 +1,52 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+
+/**
+ * Tipo de mercado de una selección, obtenido a partir de sus metadatos
+ * (marketKey y direction, rellenados por OutcomeMetadata).
+ */
+public enum MarketType {
+    MATCH_WINNER("Ganador del Partido", Outcome.MarketDirection.NONE),
+    DOUBLE_CHANCE("Doble Oportunidad", Outcome.MarketDirection.NONE),
+    DRAW_NO_BET("Apuesta sin Empate", Outcome.MarketDirection.NONE),
+    TOTAL_GOALS_OVER("Goles", Outcome.MarketDirection.OVER),
+    TOTAL_GOALS_UNDER("Goles", Outcome.MarketDirection.UNDER),
+    // Team goals: marketKey "Goles - <equipo>", matched by prefix
+    TEAM_GOALS_OVER(null, Outcome.MarketDirection.OVER),
+    TEAM_GOALS_UNDER(null, Outcome.MarketDirection.UNDER),
+    BOTH_TEAMS_SCORE("Ambos Marcan", Outcome.MarketDirection.NONE),
+    UNKNOWN(null, null);
+
+    private static final String TEAM_GOALS_PREFIX = "Goles - ";
+
+    private final String marketKey;
+    private final Outcome.MarketDirection direction;
+
+    MarketType(String marketKey, Outcome.MarketDirection direction) {
+        this.marketKey = marketKey;
+        this.direction = direction;
+    }
+
+    public static MarketType of(Outcome outcome) {
+        OutcomeMetadata.ensure(outcome);
+        String key = outcome.getMarketKey();
+        if (key == null) {
+            return UNKNOWN;
+        }
+        for (MarketType type : values()) {
+            if (key.equals(type.marketKey) && outcome.getDirection() == type.direction) {
+                return type;
+            }
+        }
+        if (key.startsWith(TEAM_GOALS_PREFIX)) {
+            if (outcome.getDirection() == Outcome.MarketDirection.OVER) {
+                return TEAM_GOALS_OVER;
+            }
+            if (outcome.getDirection() == Outcome.MarketDirection.UNDER) {
+                return TEAM_GOALS_UNDER;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,36 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Event;
+
+/**
+ * Marcador final de un evento junto con los datos derivados que necesitan los
+ * resolvers (equipo local), calculados una sola vez por resolución.
+ */
+public class MatchResult {
+    private final int homeGoals;
+    private final int awayGoals;
+    private final String homeTeam;
+
+    public MatchResult(Event event, int homeGoals, int awayGoals) {
+        this.homeGoals = homeGoals;
+        this.awayGoals = awayGoals;
+        String description = event.getDescription();
+        this.homeTeam = description != null ? description.split(" vs ")[0] : "";
+    }
+
+    public int getHomeGoals() {
+        return homeGoals;
+    }
+
+    public int getAwayGoals() {
+        return awayGoals;
+    }
+
+    public int getTotalGoals() {
+        return homeGoals + awayGoals;
+    }
+
+    public String getHomeTeam() {
+        return homeTeam;
+    }
+}
@@ -0,0 +1,30 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+// 1X2
+@Component
+public class MatchWinnerResolver implements MarketResolver {
+
+    @Override
+    public MarketType getType() {
+        return MarketType.MATCH_WINNER;
+    }
+
+    @Override
+    public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+        int home = result.getHomeGoals();
+        int away = result.getAwayGoals();
+        switch (outcome.getDescription()) {
+            case "1":
+                return MarketResolver.wonIf(home > away);
+            case "X":
+                return MarketResolver.wonIf(home == away);
+            case "2":
+                return MarketResolver.wonIf(away > home);
+            default:
+                return Outcome.OutcomeStatus.LOST;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Rellena los campos estructurados de mercado de una selección (marketKey,
+ * direction, lineValue, playerId) a partir de su outcomeGroup y descripción,
+ * para que la validación de combinadas no tenga que analizar cadenas.
+ */
+public final class OutcomeMetadata {
+
+    private static final String[] OVER_SUFFIXES = { " - Más de", " - Over" };
+    private static final String[] UNDER_SUFFIXES = { " - Menos de", " - Under" };
+
+    // Mercados de jugador que se pueden combinar entre sí dentro del mismo evento
+    private static final Set<String> STACKABLE_MARKETS = Set.of("Goleadores", "Asistencias");
+
+    private OutcomeMetadata() {
+    }
+
+    public static void apply(Outcome outcome) {
+        apply(outcome, outcome.getPlayerId());
+    }
+
+    public static void apply(Outcome outcome, Long playerId) {
+        String group = outcome.getOutcomeGroup();
+        Outcome.MarketDirection direction = Outcome.MarketDirection.NONE;
+        String marketKey = group != null ? group.trim() : null;
+
+        if (marketKey != null) {
+            String base = stripSuffix(marketKey, OVER_SUFFIXES);
+            if (base != null) {
+                direction = Outcome.MarketDirection.OVER;
+            } else {
+                base = stripSuffix(marketKey, UNDER_SUFFIXES);
+                if (base != null) {
+                    direction = Outcome.MarketDirection.UNDER;
+                }
+            }
+            if (base != null) {
+                marketKey = base.trim();
+            }
+        }
+
+        outcome.setMarketKey(marketKey);
+        outcome.setDirection(direction);
+        outcome.setLineValue(direction == Outcome.MarketDirection.NONE ? null : parseLine(outcome.getDescription()));
+        outcome.setPlayerId(playerId);
+    }
+
+    /**
+     * Selecciones creadas antes de existir los metadatos: se calculan en memoria
+     * la primera vez que se necesitan.
+     */
+    public static void ensure(Outcome outcome) {
+        if (outcome.getDirection() == null) {
+            apply(outcome);
+        }
+    }
+
+    public static boolean isStackable(String marketKey) {
+        return marketKey != null && STACKABLE_MARKETS.contains(marketKey);
+    }
+
+    private static String stripSuffix(String group, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (group.endsWith(suffix)) {
+                return group.substring(0, group.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Línea de "Más de 2.5" / "Menos de 2.5"; null si la descripción no termina
+     * en un número.
+     */
+    private static BigDecimal parseLine(String description) {
+        if (description == null) {
+            return null;
+        }
+        String trimmed = description.trim();
+        try {
+            return new BigDecimal(trimmed.substring(trimmed.lastIndexOf(' ') + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+/**
+ * Más/menos goles de un equipo ("Goles - <equipo> - Más de"). Si el
+ * marketKey contiene el nombre del equipo local se usan sus goles; si no, los
+ * del visitante.
+ */
+public abstract class TeamGoalsResolver implements MarketResolver {
+
+    protected int teamGoals(Outcome outcome, MatchResult result) {
+        return outcome.getMarketKey().contains(result.getHomeTeam())
+                ? result.getHomeGoals()
+                : result.getAwayGoals();
+    }
+
+    @Component
+    public static class Over extends TeamGoalsResolver {
+        @Override
+        public MarketType getType() {
+            return MarketType.TEAM_GOALS_OVER;
+        }
+
+        @Override
+        public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+            return MarketResolver.over(teamGoals(outcome, result), outcome);
+        }
+    }
+
+    @Component
+    public static class Under extends TeamGoalsResolver {
+        @Override
+        public MarketType getType() {
+            return MarketType.TEAM_GOALS_UNDER;
+        }
+
+        @Override
+        public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+            return MarketResolver.under(teamGoals(outcome, result), outcome);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Outcome;
+import org.springframework.stereotype.Component;
+
+/**
+ * Más/menos goles totales del partido ("Goles - Más de" / "Goles - Menos de").
+ */
+public abstract class TotalGoalsResolver implements MarketResolver {
+
+    @Component
+    public static class Over extends TotalGoalsResolver {
+        @Override
+        public MarketType getType() {
+            return MarketType.TOTAL_GOALS_OVER;
+        }
+
+        @Override
+        public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+            return MarketResolver.over(result.getTotalGoals(), outcome);
+        }
+    }
+
+    @Component
+    public static class Under extends TotalGoalsResolver {
+        @Override
+        public MarketType getType() {
+            return MarketType.TOTAL_GOALS_UNDER;
+        }
+
+        @Override
+        public Outcome.OutcomeStatus resolve(Outcome outcome, MatchResult result) {
+            return MarketResolver.under(result.getTotalGoals(), outcome);
+        }
+    }
+}
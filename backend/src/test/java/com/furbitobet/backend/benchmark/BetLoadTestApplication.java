@@ -0,0 +1,20 @@
+package com.furbitobet.backend.benchmark;
+
+import com.furbitobet.backend.FurbitoBetApplication;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Arranca la aplicación con el perfil loadtest y el classpath de test, donde
+ * vive BetLoadTestRunner, para que el arnés no llegue al jar de producción.
+ *
+ * mvn spring-boot:test-run
+ */
+public class BetLoadTestApplication {
+
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(FurbitoBetApplication.class);
+		application.setAdditionalProfiles("loadtest");
+		application.run(args);
+	}
+
+}
@@ -0,0 +1,309 @@
+package com.furbitobet.backend.benchmark;
+
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.model.User;
+import com.furbitobet.backend.security.JwtUtil;
+import com.furbitobet.backend.service.EventService;
+import com.furbitobet.backend.service.UserService;
+import com.furbitobet.backend.service.WalletCommandExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga de POST /api/bets. Vive en las fuentes de test y solo se
+ * activa con el perfil loadtest (BetLoadTestApplication): arranca la
+ * aplicación completa contra la base de datos de
+ * application-loadtest.properties, crea usuarios, un evento y sus selecciones,
+ * y lanza peticiones HTTP concurrentes contra el propio servidor con el JWT
+ * de cada usuario.
+ *
+ * Una fracción loadtest.hot-ratio de las apuestas va a los primeros
+ * loadtest.hot-users usuarios para provocar contención en sus carriles de
+ * monedero. Al terminar registra el rendimiento, las latencias p50/p99 y el
+ * tiempo de espera en cola de carril y en el bloqueo del ledger.
+ *
+ * mvn spring-boot:test-run
+ */
+@Component
+@Profile("loadtest")
+public class BetLoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BetLoadTestRunner.class);
+
+    private static final String USER_PREFIX = "loadtest_";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private WalletCommandExecutor walletCommandExecutor;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${loadtest.users:50}")
+    private int userCount;
+
+    @Value("${loadtest.hot-users:2}")
+    private int hotUsers;
+
+    @Value("${loadtest.hot-ratio:0.5}")
+    private double hotRatio;
+
+    @Value("${loadtest.outcomes:10}")
+    private int outcomeCount;
+
+    @Value("${loadtest.concurrency:32}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup-requests:500}")
+    private int warmupRequests;
+
+    @Value("${loadtest.requests:5000}")
+    private int requestCount;
+
+    @Value("${loadtest.stake:1.00}")
+    private BigDecimal stake;
+
+    @Value("${loadtest.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::run, "bet-load-test");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        int exitCode = 0;
+        try {
+            Fixture fixture = seed();
+            String url = "http://localhost:" + environment.getProperty("local.server.port") + "/api/bets";
+
+            logger.info("Load test: warming up with {} requests", warmupRequests);
+            drive(fixture, url, warmupRequests);
+
+            Map<String, Object> lanesBefore = walletCommandExecutor.getStats();
+            logger.info("Load test: {} requests, {} clients, {} users ({} hot at {}%)", requestCount, concurrency,
+                    userCount, hotUsers, Math.round(hotRatio * 100));
+            Result result = drive(fixture, url, requestCount);
+            report(result, lanesBefore, walletCommandExecutor.getStats());
+        } catch (Exception e) {
+            logger.error("Load test failed", e);
+            exitCode = 1;
+        }
+
+        if (exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    /**
+     * Usuarios con saldo de sobra y un evento futuro con outcomeCount
+     * selecciones. Los usuarios se reutilizan entre ejecuciones.
+     */
+    private Fixture seed() {
+        BigDecimal balance = stake.multiply(BigDecimal.valueOf((long) (warmupRequests + requestCount) * 2));
+        List<Long> userIds = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            String username = USER_PREFIX + i;
+            User user = userService.findByUsername(username)
+                    // Random password: the runner signs its own JWTs and never logs in
+                    .orElseGet(() -> userService.createUser(username, java.util.UUID.randomUUID().toString(),
+                            username + "@loadtest.local", User.Role.USER));
+            userService.setBalance(user.getId(), balance);
+            userIds.add(user.getId());
+            tokens.add(jwtUtil.generateToken(userService.loadUserByUsername(username)));
+        }
+
+        Event event = eventService.createEvent("Load test " + LocalDateTime.now(), LocalDateTime.now().plusDays(7));
+        List<Long> outcomeIds = new ArrayList<>();
+        for (int i = 0; i < outcomeCount; i++) {
+            Outcome outcome = eventService.addOutcome(event.getId(), "Load test outcome " + i, new BigDecimal("2.00"),
+                    "Load test " + i);
+            outcomeIds.add(outcome.getId());
+        }
+
+        logger.info("Load test: seeded {} users and event {} with {} outcomes", userCount, event.getId(),
+                outcomeCount);
+        return new Fixture(userIds, tokens, outcomeIds);
+    }
+
+    private Result drive(Fixture fixture, String url, int requests) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long[] latencies = new long[requests];
+        boolean[] failed = new boolean[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong lastError = new AtomicLong();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            clients.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    int user = pickUser();
+                    Long outcomeId = fixture.outcomeIds
+                            .get(ThreadLocalRandom.current().nextInt(fixture.outcomeIds.size()));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", "Bearer " + fixture.tokens.get(user))
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + fixture.userIds.get(user)
+                                    + ",\"outcomeIds\":[" + outcomeId + "],\"amount\":" + stake + "}"))
+                            .build();
+
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failed[i] = true;
+                            errors.incrementAndGet();
+                            lastError.set(response.statusCode());
+                        }
+                    } catch (Exception e) {
+                        failed[i] = true;
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - start;
+
+        if (errors.get() > 0) {
+            logger.warn("Load test: {} of {} requests failed (last HTTP status {})", errors.get(), requests,
+                    lastError.get());
+        }
+        // Fast rejections would drag the percentiles down, so failures are kept apart
+        long[] succeeded = new long[requests - errors.get()];
+        long[] rejected = new long[errors.get()];
+        int s = 0;
+        int f = 0;
+        for (int i = 0; i < requests; i++) {
+            if (failed[i]) {
+                rejected[f++] = latencies[i];
+            } else {
+                succeeded[s++] = latencies[i];
+            }
+        }
+        return new Result(succeeded, rejected, elapsed);
+    }
+
+    // Skewed choice: hotRatio of the traffic goes to the first hotUsers users
+    private int pickUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hot = Math.min(hotUsers, userCount);
+        if (hot > 0 && (hot == userCount || random.nextDouble() < hotRatio)) {
+            return random.nextInt(hot);
+        }
+        return hot + random.nextInt(userCount - hot);
+    }
+
+    private void report(Result result, Map<String, Object> lanesBefore, Map<String, Object> lanesAfter) {
+        long[] sorted = result.latencies.clone();
+        Arrays.sort(sorted);
+        long[] failures = result.failureLatencies.clone();
+        Arrays.sort(failures);
+        double seconds = result.elapsedNanos / 1e9;
+
+        logger.info("Load test results (latencies of successful bets only):");
+        logger.info("  requests      {} ({} failed)", sorted.length + failures.length, failures.length);
+        logger.info("  throughput    {} bets/s", String.format("%.1f", sorted.length / seconds));
+        logger.info("  latency p50   {} ms", millis(percentile(sorted, 0.50)));
+        logger.info("  latency p99   {} ms", millis(percentile(sorted, 0.99)));
+        logger.info("  latency max   {} ms", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+        if (failures.length > 0) {
+            logger.info("  failed p50    {} ms, p99 {} ms", millis(percentile(failures, 0.50)),
+                    millis(percentile(failures, 0.99)));
+        }
+        logger.info("  lane queue    {} ms total, {} ms max",
+                delta(lanesBefore, lanesAfter, "queueWaitMs"), lanesAfter.get("maxQueueWaitMs"));
+        logger.info("  lane batches  {} ({} retried)", delta(lanesBefore, lanesAfter, "batches"),
+                delta(lanesBefore, lanesAfter, "batchRetries"));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String key) {
+        return ((Number) after.get(key)).longValue() - ((Number) before.get(key)).longValue();
+    }
+
+    private static final class Fixture {
+        private final List<Long> userIds;
+        private final List<String> tokens;
+        private final List<Long> outcomeIds;
+
+        private Fixture(List<Long> userIds, List<String> tokens, List<Long> outcomeIds) {
+            this.userIds = userIds;
+            this.tokens = tokens;
+            this.outcomeIds = outcomeIds;
+        }
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final long[] failureLatencies;
+        private final long elapsedNanos;
+
+        private Result(long[] latencies, long[] failureLatencies, long elapsedNanos) {
+            this.latencies = latencies;
+            this.failureLatencies = failureLatencies;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
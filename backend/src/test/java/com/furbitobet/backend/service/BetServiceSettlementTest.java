@@ -0,0 +1,166 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.model.User;
+import com.furbitobet.backend.repository.BetRepository;
+import com.furbitobet.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BetServiceSettlementTest {
+
+    @Mock
+    private BetRepository betRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WalletLedgerService walletLedgerService;
+
+    @Mock
+    private ExposureService exposureService;
+
+    @Mock
+    private CashOutService cashOutService;
+
+    @Mock
+    private ContentVersionService contentVersionService;
+
+    @Mock
+    private LiveUpdateService liveUpdateService;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @InjectMocks
+    private BetService betService;
+
+    private final User user = user(7L);
+
+    @Test
+    void winningBetPaysTheOddsItWasPlacedAt() {
+        Outcome home = outcome(1L, Outcome.OutcomeStatus.WON, "3.00");
+        Outcome over = outcome(2L, Outcome.OutcomeStatus.WON, "1.50");
+        Bet bet = bet(100L, "10.00", home, over);
+        bet.getPlacedOdds().put(1L, new BigDecimal("2.00"));
+        bet.getPlacedOdds().put(2L, new BigDecimal("1.80"));
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(100L))).thenReturn(List.of(bet));
+
+        int settled = betService.settleUserPartition(7L, List.of(100L));
+
+        assertThat(settled).isEqualTo(1);
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.WON);
+        assertThat(bet.getWinnings()).isEqualByComparingTo("36.00");
+        verify(walletLedgerService).creditWinnings(List.of(100L));
+    }
+
+    @Test
+    void betsWithoutPlacedOddsFallBackToCurrentOdds() {
+        Bet bet = bet(101L, "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "2.50"));
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(101L))).thenReturn(List.of(bet));
+
+        betService.settleUserPartition(7L, List.of(101L));
+
+        assertThat(bet.getWinnings()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void voidLegsCountAsOddsOne() {
+        Bet bet = bet(102L, "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "2.00"),
+                outcome(2L, Outcome.OutcomeStatus.VOID, "5.00"));
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(102L))).thenReturn(List.of(bet));
+
+        betService.settleUserPartition(7L, List.of(102L));
+
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.WON);
+        assertThat(bet.getWinnings()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void allVoidBetIsRefunded() {
+        Bet bet = bet(103L, "10.00", outcome(1L, Outcome.OutcomeStatus.VOID, "2.00"));
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(103L))).thenReturn(List.of(bet));
+
+        betService.settleUserPartition(7L, List.of(103L));
+
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.VOID);
+        assertThat(bet.getWinnings()).isEqualByComparingTo("10.00");
+        verify(walletLedgerService).creditWinnings(List.of(103L));
+    }
+
+    @Test
+    void lostLegLosesTheBetWithoutCredit() {
+        Bet bet = bet(104L, "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "2.00"),
+                outcome(2L, Outcome.OutcomeStatus.LOST, "2.00"));
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(104L))).thenReturn(List.of(bet));
+
+        int settled = betService.settleUserPartition(7L, List.of(104L));
+
+        assertThat(settled).isEqualTo(1);
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.LOST);
+        assertThat(bet.getWinnings()).isEqualByComparingTo("0");
+        verify(walletLedgerService).creditWinnings(List.of());
+    }
+
+    @Test
+    void pendingLegsAndSettledBetsAreLeftAlone() {
+        Bet open = bet(105L, "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "2.00"),
+                outcome(2L, Outcome.OutcomeStatus.PENDING, "2.00"));
+        Bet alreadyWon = bet(106L, "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "2.00"));
+        alreadyWon.setStatus(Bet.BetStatus.WON);
+        when(betRepository.findAllWithOutcomesByIdIn(List.of(105L, 106L))).thenReturn(List.of(open, alreadyWon));
+
+        int settled = betService.settleUserPartition(7L, List.of(105L, 106L));
+
+        assertThat(settled).isZero();
+        assertThat(open.getStatus()).isEqualTo(Bet.BetStatus.PENDING);
+        verify(betRepository, never()).save(open);
+        verify(emailOutboxService, never()).enqueue(org.mockito.ArgumentMatchers.anyString(),
+                org.mockito.ArgumentMatchers.anyString(), org.mockito.ArgumentMatchers.anyString());
+        verify(exposureService).removeBets(anyList());
+    }
+
+    private Bet bet(Long id, String amount, Outcome... outcomes) {
+        Bet bet = new Bet();
+        bet.setId(id);
+        bet.setUser(user);
+        bet.setAmount(new BigDecimal(amount));
+        bet.setStatus(Bet.BetStatus.PENDING);
+        bet.setOutcomes(List.of(outcomes));
+        bet.setPlacedOdds(new HashMap<>(Map.of()));
+        return bet;
+    }
+
+    private static Outcome outcome(Long id, Outcome.OutcomeStatus status, String odds) {
+        Outcome outcome = new Outcome();
+        outcome.setId(id);
+        outcome.setStatus(status);
+        outcome.setOdds(new BigDecimal(odds));
+        return outcome;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("iago");
+        user.setEmail("iago@example.com");
+        return user;
+    }
+}
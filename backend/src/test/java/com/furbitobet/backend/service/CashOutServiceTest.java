@@ -0,0 +1,117 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.dto.CashOutQuoteDTO;
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.repository.BetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CashOutServiceTest {
+
+    @Mock
+    private BetRepository betRepository;
+
+    @Mock
+    private OutcomeSnapshotService outcomeSnapshotService;
+
+    @InjectMocks
+    private CashOutService cashOutService;
+
+    private Consumer<OutcomeSnapshotService.Entry> oddsListener;
+
+    private final LocalDateTime kickoff = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(cashOutService, "cashOutFactor", new BigDecimal("0.95"));
+        cashOutService.registerListener();
+        ArgumentCaptor<Consumer<OutcomeSnapshotService.Entry>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(outcomeSnapshotService).addListener(captor.capture());
+        oddsListener = captor.getValue();
+
+        cashOutService.trackPlaced(100L, 7L, new BigDecimal("10.00"),
+                List.of(entry(1L, "2.00", kickoff), entry(2L, "1.50", kickoff)));
+    }
+
+    @Test
+    void unchangedOddsOfferTheStakeTimesTheFactor() {
+        CashOutQuoteDTO quote = cashOutService.getQuote(100L);
+
+        assertThat(quote.isAvailable()).isTrue();
+        assertThat(quote.getProjectedPayout()).isEqualByComparingTo("30.00");
+        assertThat(quote.getOpenOdds()).isEqualByComparingTo("3.00");
+        assertThat(quote.getAmount()).isEqualByComparingTo("9.50");
+        assertThat(cashOutService.getOwner(100L)).isEqualTo(7L);
+    }
+
+    @Test
+    void shorterOddsOnAnOpenLegRaiseTheOffer() {
+        oddsListener.accept(entry(1L, "1.50", kickoff));
+
+        CashOutQuoteDTO quote = cashOutService.getQuote(100L);
+
+        // Still pays at the placed odds: 30 / (1.50 x 1.50) x 0.95, rounded down
+        assertThat(quote.getProjectedPayout()).isEqualByComparingTo("30.00");
+        assertThat(quote.getAmount()).isEqualByComparingTo("12.66");
+    }
+
+    @Test
+    void wonLegIsPricedAtItsPlacedOdds() {
+        cashOutService.onOutcomesSettled(Map.of(1L, Outcome.OutcomeStatus.WON));
+
+        CashOutQuoteDTO quote = cashOutService.getQuote(100L);
+
+        assertThat(quote.getSettledOdds()).isEqualByComparingTo("2.00");
+        assertThat(quote.getOpenOdds()).isEqualByComparingTo("1.50");
+        assertThat(quote.getAmount()).isEqualByComparingTo("19.00");
+    }
+
+    @Test
+    void lostLegEndsTheOffer() {
+        cashOutService.onOutcomesSettled(Map.of(2L, Outcome.OutcomeStatus.LOST));
+
+        assertThat(cashOutService.getQuote(100L)).isNull();
+    }
+
+    @Test
+    void noOfferOnceAnEventHasStarted() {
+        oddsListener.accept(entry(2L, "1.50", LocalDateTime.now().minusMinutes(5)));
+
+        CashOutQuoteDTO quote = cashOutService.getQuote(100L);
+
+        assertThat(quote.isAvailable()).isFalse();
+        assertThat(quote.getReason()).contains("started");
+    }
+
+    private static OutcomeSnapshotService.Entry entry(Long id, String odds, LocalDateTime kickoff) {
+        Event event = new Event();
+        event.setId(1L);
+        event.setName("Celta vs Deportivo");
+        event.setStatus(Event.EventStatus.UPCOMING);
+        event.setDate(kickoff);
+        Outcome outcome = new Outcome();
+        outcome.setId(id);
+        outcome.setOdds(new BigDecimal(odds));
+        outcome.setOutcomeGroup("Ganador del Partido");
+        outcome.setEvent(event);
+        return OutcomeSnapshotService.Entry.of(outcome);
+    }
+}
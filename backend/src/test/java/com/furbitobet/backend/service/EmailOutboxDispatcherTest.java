@@ -0,0 +1,104 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.EmailOutbox;
+import com.furbitobet.backend.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMs", 300000L);
+    }
+
+    @Test
+    void sentEmailsAreMarkedAndReleased() {
+        EmailOutbox email = email(1L, 0);
+        when(emailOutboxRepository.claimPending(anyString(), any(), any(), eq(0L), eq(2))).thenReturn(1);
+        when(emailOutboxRepository.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(List.of(email));
+
+        dispatcher.dispatch();
+
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.OutboxStatus.SENT);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getSentAt()).isNotNull();
+        assertThat(email.getClaimToken()).isNull();
+        verify(emailOutboxRepository).save(email);
+    }
+
+    @Test
+    void failedSendGoesBackToPendingUntilTheLastAttempt() {
+        EmailOutbox retried = email(1L, 0);
+        EmailOutbox exhausted = email(2L, 2);
+        doThrow(new RuntimeException("Brevo unavailable")).when(emailService)
+                .deliverSimpleMessage(anyString(), anyString(), anyString());
+        when(emailOutboxRepository.claimPending(anyString(), any(), any(), anyLong(), anyInt())).thenReturn(2, 0);
+        when(emailOutboxRepository.findByClaimTokenOrderByIdAsc(anyString()))
+                .thenReturn(List.of(retried, exhausted), List.of());
+
+        dispatcher.dispatch();
+
+        assertThat(retried.getStatus()).isEqualTo(EmailOutbox.OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isEqualTo("Brevo unavailable");
+        assertThat(retried.getClaimToken()).isNull();
+        assertThat(exhausted.getStatus()).isEqualTo(EmailOutbox.OutboxStatus.FAILED);
+        assertThat(exhausted.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void fullBatchesKeepClaimingPastTheLastId() {
+        when(emailOutboxRepository.claimPending(anyString(), any(), any(), anyLong(), anyInt())).thenReturn(2, 1);
+        when(emailOutboxRepository.findByClaimTokenOrderByIdAsc(anyString()))
+                .thenReturn(List.of(email(1L, 0), email(2L, 0)), List.of(email(3L, 0)));
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).claimPending(anyString(), any(), any(), eq(0L), eq(2));
+        verify(emailOutboxRepository).claimPending(anyString(), any(), any(), eq(2L), eq(2));
+        verify(emailService, times(3)).deliverSimpleMessage(anyString(), anyString(), anyString());
+    }
+
+    private static EmailOutbox email(Long id, int attempts) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(id);
+        email.setRecipient("iago@example.com");
+        email.setSubject("Resultado de tu apuesta #" + id);
+        email.setBody("Hola");
+        email.setStatus(EmailOutbox.OutboxStatus.PENDING);
+        email.setAttempts(attempts);
+        email.setClaimToken("token");
+        return email;
+    }
+}
@@ -0,0 +1,110 @@
+package com.furbitobet.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furbitobet.backend.model.IdempotencyRecord;
+import com.furbitobet.backend.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(transactionManager, 100);
+        ReflectionTestUtils.setField(idempotencyService, "idempotencyRecordRepository", idempotencyRecordRepository);
+        ReflectionTestUtils.setField(idempotencyService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        lenient().when(idempotencyRecordRepository.save(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheStoredResponse() {
+        ResponseEntity<?> first = execute("key-1", Map.of("amount", 10));
+        ResponseEntity<?> retry = execute("key-1", Map.of("amount", 10));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatusCode().value()).isEqualTo(200);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void reusingTheKeyWithAnotherBodyIsRejectedWith422() {
+        execute("key-2", Map.of("amount", 10));
+        ResponseEntity<?> reused = execute("key-2", Map.of("amount", 50));
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatusCode().value()).isEqualTo(422);
+    }
+
+    @Test
+    void requestStillInFlightIsRejectedWith409() {
+        ResponseEntity<?>[] nested = new ResponseEntity<?>[1];
+        idempotencyService.execute(1L, "bet", "key-3", Map.of("amount", 10), () -> {
+            nested[0] = execute("key-3", Map.of("amount", 10));
+            return ResponseEntity.ok("placed");
+        });
+
+        assertThat(nested[0].getStatusCode().value()).isEqualTo(409);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void failedRequestIsNotStoredAndCanBeRetried() {
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "bet", "key-4", Map.of("amount", 10), () -> {
+            throw new RuntimeException("Insufficient balance");
+        })).hasMessage("Insufficient balance");
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+
+        ResponseEntity<?> retry = execute("key-4", Map.of("amount", 10));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        execute("key-5", Map.of("amount", 10));
+        idempotencyService.execute(2L, "bet", "key-5", Map.of("amount", 10), () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("placed");
+        });
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private ResponseEntity<?> execute(String key, Object request) {
+        return idempotencyService.execute(1L, "bet", key, request, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("bet #" + executions.get());
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.furbitobet.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void formattedCursorParsesBack() {
+        LocalDateTime date = LocalDateTime.of(2026, 3, 14, 18, 30);
+
+        KeysetCursor cursor = KeysetCursor.parse(KeysetCursor.of(date, 42L), false);
+
+        assertThat(cursor.getDate()).isEqualTo(date);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void missingCursorStartsAtTheRightEnd() {
+        KeysetCursor ascending = KeysetCursor.parse(null, false);
+        KeysetCursor descending = KeysetCursor.parse(" ", true);
+
+        assertThat(ascending.getDate()).isEqualTo(KeysetCursor.MIN_DATE);
+        assertThat(ascending.getId()).isZero();
+        assertThat(descending.getDate()).isEqualTo(KeysetCursor.MAX_DATE);
+        assertThat(descending.getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void bareDateSkipsEverythingAtThatInstant() {
+        LocalDateTime date = LocalDateTime.of(2026, 3, 14, 18, 30);
+
+        assertThat(KeysetCursor.parse(date.toString(), true).getId()).isZero();
+        assertThat(KeysetCursor.parse(date.toString(), false).getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.parse("yesterday,1", false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.parse("2026-03-14T18:30,abc", true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
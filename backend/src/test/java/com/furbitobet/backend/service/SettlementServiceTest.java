@@ -0,0 +1,185 @@
+package com.furbitobet.backend.service;
+
+import com.furbitobet.backend.model.Bet;
+import com.furbitobet.backend.model.Outcome;
+import com.furbitobet.backend.model.User;
+import com.furbitobet.backend.model.WalletLedgerEntry;
+import com.furbitobet.backend.repository.BetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    private BetRepository betRepository;
+
+    @Mock
+    private WalletLedgerService walletLedgerService;
+
+    @Mock
+    private WalletCommandExecutor walletCommandExecutor;
+
+    @Mock
+    private ExposureService exposureService;
+
+    @Mock
+    private CashOutService cashOutService;
+
+    @Mock
+    private ContentVersionService contentVersionService;
+
+    @Mock
+    private LiveUpdateService liveUpdateService;
+
+    @InjectMocks
+    private SettlementService settlementService;
+
+    private final Map<Long, Bet> bets = new LinkedHashMap<>();
+
+    @BeforeEach
+    void runLanesInline() {
+        // Every user's command runs on the calling thread
+        when(walletCommandExecutor.executeEach(anyMap())).thenAnswer(invocation -> {
+            Map<Long, Supplier<?>> commands = invocation.getArgument(0);
+            Map<Long, Object> results = new LinkedHashMap<>();
+            commands.forEach((userId, command) -> results.put(userId, command.get()));
+            return results;
+        });
+        when(betRepository.findIdAndUserIdByOutcomeIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Bet bet : bets.values()) {
+                rows.add(new Object[] { bet.getId(), bet.getUser().getId() });
+            }
+            return rows;
+        });
+        when(betRepository.findAllWithOutcomesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            List<Bet> found = new ArrayList<>();
+            for (Long id : ids) {
+                found.add(bets.get(id));
+            }
+            return found;
+        });
+    }
+
+    @Test
+    void correctionToLostReversesWinningsWithOneLedgerRowPerUser() {
+        Outcome corrected = outcome(1L, Outcome.OutcomeStatus.LOST, "2.00");
+        User user = user(7L);
+        Bet first = bet(100L, user, "10.00", corrected);
+        first.setStatus(Bet.BetStatus.WON);
+        first.setWinnings(new BigDecimal("20.00"));
+        Bet second = bet(101L, user, "5.00", corrected);
+        second.setStatus(Bet.BetStatus.WON);
+        second.setWinnings(new BigDecimal("10.00"));
+
+        int reevaluated = settlementService.reevaluateBets(List.of(1L));
+
+        assertThat(reevaluated).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(Bet.BetStatus.LOST);
+        assertThat(second.getWinnings()).isEqualByComparingTo("0");
+        List<WalletLedgerEntry> entries = recordedEntries();
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getUserId()).isEqualTo(7L);
+        assertThat(entries.get(0).getAmount()).isEqualByComparingTo("-30.00");
+        assertThat(entries.get(0).getEntryType()).isEqualTo(WalletLedgerEntry.EntryType.SETTLEMENT_CORRECTION);
+        assertThat(entries.get(0).getBetId()).isNull();
+    }
+
+    @Test
+    void pendingBetThatNowWinsIsPaidAtItsPlacedOdds() {
+        Bet bet = bet(102L, user(8L), "10.00", outcome(1L, Outcome.OutcomeStatus.WON, "3.00"));
+        bet.getPlacedOdds().put(1L, new BigDecimal("2.00"));
+
+        settlementService.reevaluateBets(List.of(1L));
+
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.WON);
+        assertThat(bet.getWinnings()).isEqualByComparingTo("20.00");
+        List<WalletLedgerEntry> entries = recordedEntries();
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getAmount()).isEqualByComparingTo("20.00");
+        assertThat(entries.get(0).getBetId()).isEqualTo(102L);
+        verify(exposureService).removeBets(List.of(102L));
+    }
+
+    @Test
+    void reopenedBetTakesBackItsPayoutAndIsTrackedAgain() {
+        Bet bet = bet(103L, user(9L), "10.00", outcome(1L, Outcome.OutcomeStatus.PENDING, "2.00"));
+        bet.setStatus(Bet.BetStatus.WON);
+        bet.setWinnings(new BigDecimal("20.00"));
+
+        settlementService.reevaluateBets(List.of(1L));
+
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.PENDING);
+        assertThat(bet.getWinnings()).isNull();
+        assertThat(recordedEntries().get(0).getAmount()).isEqualByComparingTo("-20.00");
+        verify(exposureService).addBets(List.of(103L));
+        verify(cashOutService).track(List.of(103L));
+    }
+
+    @Test
+    void cashedOutBetsAreNotTouched() {
+        Bet bet = bet(104L, user(10L), "10.00", outcome(1L, Outcome.OutcomeStatus.LOST, "2.00"));
+        bet.setStatus(Bet.BetStatus.CASHED_OUT);
+        bet.setWinnings(new BigDecimal("12.00"));
+
+        settlementService.reevaluateBets(List.of(1L));
+
+        assertThat(bet.getStatus()).isEqualTo(Bet.BetStatus.CASHED_OUT);
+        assertThat(recordedEntries()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WalletLedgerEntry> recordedEntries() {
+        ArgumentCaptor<Collection<WalletLedgerEntry>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(walletLedgerService).record(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private Bet bet(Long id, User user, String amount, Outcome... outcomes) {
+        Bet bet = new Bet();
+        bet.setId(id);
+        bet.setUser(user);
+        bet.setAmount(new BigDecimal(amount));
+        bet.setStatus(Bet.BetStatus.PENDING);
+        bet.setOutcomes(List.of(outcomes));
+        bet.setPlacedOdds(new HashMap<>());
+        bets.put(id, bet);
+        return bet;
+    }
+
+    private static Outcome outcome(Long id, Outcome.OutcomeStatus status, String odds) {
+        Outcome outcome = new Outcome();
+        outcome.setId(id);
+        outcome.setStatus(status);
+        outcome.setOdds(new BigDecimal(odds));
+        return outcome;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
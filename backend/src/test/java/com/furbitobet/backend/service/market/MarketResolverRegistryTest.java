@@ -0,0 +1,95 @@
+package com.furbitobet.backend.service.market;
+
+import com.furbitobet.backend.model.Event;
+import com.furbitobet.backend.model.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MarketResolverRegistryTest {
+
+    private final MarketResolverRegistry registry = new MarketResolverRegistry(List.of(
+            new MatchWinnerResolver(), new DoubleChanceResolver(), new DrawNoBetResolver(),
+            new BothTeamsScoreResolver(), new TotalGoalsResolver.Over(), new TotalGoalsResolver.Under(),
+            new TeamGoalsResolver.Over(), new TeamGoalsResolver.Under()));
+
+    private final Event event = event("Celta vs Deportivo");
+
+    @Test
+    void marketTypeComesFromMarketKeyAndDirection() {
+        assertThat(MarketType.of(outcome("Ganador del Partido", "1"))).isEqualTo(MarketType.MATCH_WINNER);
+        assertThat(MarketType.of(outcome("Goles - Más de", "Más de 2.5"))).isEqualTo(MarketType.TOTAL_GOALS_OVER);
+        assertThat(MarketType.of(outcome("Goles - Under", "Under 2.5"))).isEqualTo(MarketType.TOTAL_GOALS_UNDER);
+        assertThat(MarketType.of(outcome("Goles - Celta - Más de", "Más de 1.5")))
+                .isEqualTo(MarketType.TEAM_GOALS_OVER);
+        assertThat(MarketType.of(outcome("Tarjetas - Más de", "Más de 4.5"))).isEqualTo(MarketType.UNKNOWN);
+        assertThat(MarketType.of(outcome("Goleadores", "Iago Aspas"))).isEqualTo(MarketType.UNKNOWN);
+    }
+
+    @Test
+    void matchWinnerFollowsTheScore() {
+        assertThat(resolve(outcome("Ganador del Partido", "1"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.WON);
+        assertThat(resolve(outcome("Ganador del Partido", "X"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.LOST);
+        assertThat(resolve(outcome("Ganador del Partido", "X"), 1, 1)).isEqualTo(Outcome.OutcomeStatus.WON);
+    }
+
+    @Test
+    void totalGoalsCompareAgainstTheLine() {
+        assertThat(resolve(outcome("Goles - Más de", "Más de 2.5"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.WON);
+        assertThat(resolve(outcome("Goles - Más de", "Más de 3.5"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.LOST);
+        assertThat(resolve(outcome("Goles - Menos de", "Menos de 3.5"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.WON);
+    }
+
+    @Test
+    void teamGoalsUseTheTeamNamedInTheMarket() {
+        assertThat(resolve(outcome("Goles - Celta - Más de", "Más de 1.5"), 2, 0))
+                .isEqualTo(Outcome.OutcomeStatus.WON);
+        assertThat(resolve(outcome("Goles - Deportivo - Más de", "Más de 0.5"), 2, 0))
+                .isEqualTo(Outcome.OutcomeStatus.LOST);
+        assertThat(resolve(outcome("Goles - Deportivo - Menos de", "Menos de 0.5"), 2, 0))
+                .isEqualTo(Outcome.OutcomeStatus.WON);
+    }
+
+    @Test
+    void storedLineValueWinsOverTheDescription() {
+        Outcome outcome = outcome("Goles - Más de", "Más de 2.5");
+        OutcomeMetadata.apply(outcome);
+        outcome.setLineValue(new BigDecimal("3.5"));
+
+        assertThat(resolve(outcome, 2, 1)).isEqualTo(Outcome.OutcomeStatus.LOST);
+    }
+
+    @Test
+    void overUnderWithoutLineIsRejected() {
+        Outcome outcome = outcome("Goles - Más de", "Muchos");
+
+        assertThatThrownBy(() -> resolve(outcome, 2, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownMarketsResolveAsLost() {
+        assertThat(resolve(outcome("Goleadores", "Iago Aspas"), 2, 1)).isEqualTo(Outcome.OutcomeStatus.LOST);
+    }
+
+    private Outcome.OutcomeStatus resolve(Outcome outcome, int homeGoals, int awayGoals) {
+        return registry.resolve(outcome, new MatchResult(event, homeGoals, awayGoals));
+    }
+
+    private static Event event(String name) {
+        Event event = new Event();
+        event.setName(name);
+        return event;
+    }
+
+    private static Outcome outcome(String group, String description) {
+        Outcome outcome = new Outcome();
+        outcome.setId(1L);
+        outcome.setOutcomeGroup(group);
+        outcome.setDescription(description);
+        return outcome;
+    }
+}
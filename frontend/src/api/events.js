@@ -0,0 +1,15 @@
+// Catálogo público de eventos: resúmenes sin selecciones, paginados por cursor.
+// Cada llamada trae una sola página; nextCursor es null en la última.
+export async function fetchEventPage({ statuses = [], cursor = null, limit = 20, newestFirst = false } = {}) {
+    const params = new URLSearchParams()
+    statuses.forEach(status => params.append('status', status))
+    params.set('limit', limit)
+    if (newestFirst) params.set('newestFirst', 'true')
+    if (cursor) params.set('cursor', cursor)
+
+    const res = await fetch(`${import.meta.env.VITE_API_URL}/api/events?${params}`)
+    if (!res.ok) {
+        throw new Error(`Could not load events (${res.status})`)
+    }
+    return res.json()
+}
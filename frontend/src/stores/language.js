@@ -314,6 +314,7 @@ export const useLanguageStore = defineStore('language', () => {
                 active: 'Activas',
                 finished: 'Finalizadas',
                 all: 'Todas',
+                loadMore: 'Cargar más',
                 status: {
                     UPCOMING: 'Próximo',
                     COMPLETED: 'FINALIZADO',
@@ -322,6 +323,7 @@ export const useLanguageStore = defineStore('language', () => {
                     CANCELLED: 'CANCELADO',
                     WON: 'GANADA',
                     LOST: 'PERDIDA',
+                    CASHED_OUT: 'COBRADA',
                     VOID: 'ANULADA'
                 }
             },
@@ -641,6 +643,7 @@ export const useLanguageStore = defineStore('language', () => {
                 active: 'Activas',
                 finished: 'Finalizadas',
                 all: 'Todas',
+                loadMore: 'Cargar máis',
                 status: {
                     UPCOMING: 'Próximo',
                     COMPLETED: 'FINALIZADO',
@@ -649,6 +652,7 @@ export const useLanguageStore = defineStore('language', () => {
                     CANCELLED: 'CANCELADO',
                     WON: 'GAÑADA',
                     LOST: 'PERDIDA',
+                    CASHED_OUT: 'COBRADA',
                     VOID: 'ANULADA'
                 }
             },
@@ -959,6 +963,7 @@ export const useLanguageStore = defineStore('language', () => {
                 active: 'Active',
                 finished: 'Finished',
                 all: 'All',
+                loadMore: 'Load more',
                 status: {
                     UPCOMING: 'Upcoming',
                     COMPLETED: 'COMPLETED',
@@ -967,6 +972,7 @@ export const useLanguageStore = defineStore('language', () => {
                     CANCELLED: 'CANCELLED',
                     WON: 'WON',
                     LOST: 'LOST',
+                    CASHED_OUT: 'CASHED OUT',
                     VOID: 'VOID'
                 }
             },